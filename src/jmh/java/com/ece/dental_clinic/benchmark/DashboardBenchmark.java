@@ -0,0 +1,105 @@
+package com.ece.dental_clinic.benchmark;
+
+import com.ece.dental_clinic.dto.AppointmentDashboardRow;
+import com.ece.dental_clinic.dto.PatientNameView;
+import com.ece.dental_clinic.dto.SeekCursor;
+import com.ece.dental_clinic.enums.AppointmentStatus;
+import com.ece.dental_clinic.enums.InvoiceStatus;
+import com.ece.dental_clinic.repository.PatientRepository;
+import com.ece.dental_clinic.service.PatientNameIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Dashboard'ların DB dışındaki işi. İşlem adları artık SQL'de string_agg ile birleştiriliyor; Java tarafında kalan
+// sıcak kısım hekim panelindeki hasta adı filtresi (trigram index) ve sayfa satırlarının durum/cursor hesabı.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"10000", "100000"})
+    public int patients;
+
+    private PatientNameIndex nameIndex;
+    private List<AppointmentDashboardRow> page;
+    private String nextCursor;
+
+    @Setup
+    public void setUp() {
+        List<PatientNameView> names = Fixtures.patientNames(patients);
+        nameIndex = new PatientNameIndex(
+                Fixtures.repository(PatientRepository.class, "findAllNames", args -> names));
+        // İlk arama index'i yükler
+        nameIndex.search("ali");
+
+        LocalDateTime base = LocalDateTime.now().minusDays(3).withSecond(0).withNano(0);
+        AppointmentStatus[] statuses = AppointmentStatus.values();
+        page = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            page.add(new AppointmentDashboardRow(
+                    1000L + i,
+                    base.plusHours(i * 5L),
+                    statuses[i % statuses.length],
+                    (long) i,
+                    names.get(i).getFirstName() + " " + names.get(i).getLastName(),
+                    1L,
+                    "Doktor Bir",
+                    "Dolgu, Diş Taşı Temizliği",
+                    i % 2 == 0 ? 500L + i : null,
+                    i % 2 == 0 ? InvoiceStatus.UNPAID : null,
+                    i % 2 == 0 ? 1250.0 : null));
+        }
+        nextCursor = new SeekCursor(page.get(PAGE_SIZE - 1).getAppointmentDatetime(), page.get(PAGE_SIZE - 1).getId()).encode();
+    }
+
+    @Benchmark
+    public long[] nameSearch() {
+        return nameIndex.search("yılmaz");
+    }
+
+    @Benchmark
+    public long[] nameSearchPartial() {
+        return nameIndex.search("ayş");
+    }
+
+    // 3 harften kısa sorgu trigram kullanamaz, ad listesini tarar
+    @Benchmark
+    public long[] nameSearchShort() {
+        return nameIndex.search("ay");
+    }
+
+    @Benchmark
+    public void renderPage(Blackhole bh) {
+        SeekCursor cursor = SeekCursor.parse(nextCursor);
+        bh.consume(cursor);
+        for (AppointmentDashboardRow row : page) {
+            bh.consume(row.getEffectiveStatus());
+            bh.consume(row.getTreatmentNames());
+            bh.consume(row.getInvoiceFinalAmount());
+        }
+        AppointmentDashboardRow first = page.get(0);
+        AppointmentDashboardRow last = page.get(page.size() - 1);
+        bh.consume(new SeekCursor(first.getAppointmentDatetime(), first.getId()).encode());
+        bh.consume(new SeekCursor(last.getAppointmentDatetime(), last.getId()).encode());
+    }
+}
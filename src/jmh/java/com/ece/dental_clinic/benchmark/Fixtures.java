@@ -0,0 +1,94 @@
+package com.ece.dental_clinic.benchmark;
+
+import com.ece.dental_clinic.dto.BusyInterval;
+import com.ece.dental_clinic.dto.PatientNameView;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+// Benchmark'lar DB'siz çalışsın diye repository'lerin yalnızca kullanılan metodunu cevaplayan sahte örnekler
+final class Fixtures {
+
+    private static final String[] FIRST_NAMES = {
+            "Ali", "Ayşe", "Mehmet", "Fatma", "Mustafa", "Emine", "Ahmet", "Hatice", "Hüseyin", "Zeynep",
+            "İbrahim", "Elif", "Hasan", "Merve", "İsmail", "Büşra", "Osman", "Özge", "Yusuf", "Şeyma"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Yılmaz", "Kaya", "Demir", "Şahin", "Çelik", "Yıldız", "Yıldırım", "Öztürk", "Aydın", "Özdemir",
+            "Arslan", "Doğan", "Kılıç", "Aslan", "Çetin", "Kara", "Koç", "Kurt", "Özkan", "Şimşek"
+    };
+
+    private Fixtures() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, String method, Function<Object[], Object> answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, m, args) -> {
+            switch (m.getName()) {
+                case "toString":
+                    return type.getSimpleName() + "Fixture";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    if (m.getName().equals(method)) {
+                        return answer.apply(args);
+                    }
+                    throw new UnsupportedOperationException("Fixture'da yok: " + type.getSimpleName() + "." + m.getName());
+            }
+        });
+    }
+
+    // 30 dakikalık slotlardan count tanesi dolu; 7 ile 16 aralarında asal olduğundan indeksler tekrar etmez
+    static List<BusyInterval> busyIntervals(LocalDate date, int count, int slotMinutes, int slotsPerDay) {
+        List<BusyInterval> busy = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = date.atTime(9, 0).plusMinutes((long) ((i * 7) % slotsPerDay) * slotMinutes);
+            busy.add(new BusyInterval() {
+                @Override
+                public LocalDateTime getStart() {
+                    return start;
+                }
+
+                @Override
+                public Long getDurationMinutes() {
+                    return (long) slotMinutes;
+                }
+            });
+        }
+        return busy;
+    }
+
+    // 400 ad-soyad kombinasyonu döngüyle tekrarlanır; aramalar büyük n'de çok sayıda aday döndürür
+    static List<PatientNameView> patientNames(int n) {
+        List<PatientNameView> names = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            long id = i + 1L;
+            String first = FIRST_NAMES[i % FIRST_NAMES.length];
+            String last = LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length];
+            names.add(new PatientNameView() {
+                @Override
+                public Long getId() {
+                    return id;
+                }
+
+                @Override
+                public String getFirstName() {
+                    return first;
+                }
+
+                @Override
+                public String getLastName() {
+                    return last;
+                }
+            });
+        }
+        return names;
+    }
+}
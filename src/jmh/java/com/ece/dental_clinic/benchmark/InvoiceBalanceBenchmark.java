@@ -0,0 +1,64 @@
+package com.ece.dental_clinic.benchmark;
+
+import com.ece.dental_clinic.entity.Invoice;
+import com.ece.dental_clinic.enums.InvoiceStatus;
+import com.ece.dental_clinic.service.PaymentPostingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// PatientInvoiceController'daki bakiye hesabı: fatura sayfasında kalan tutar, ödeme POST'unda tutar parse + kontrol
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InvoiceBalanceBenchmark {
+
+    private static final int INVOICES = 100;
+
+    private final List<Invoice> invoices = new ArrayList<>();
+    private final String[] amounts = {"150", "150,50", " 99.90 ", "1250,00", "0,01", "abc"};
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < INVOICES; i++) {
+            Invoice inv = new Invoice();
+            inv.setFinalAmount(500.0 + i * 12.5);
+            inv.setPaidAmount(BigDecimal.valueOf(i * 300L, 2));
+            inv.setPendingAmount(i % 4 == 0 ? new BigDecimal("50.00") : BigDecimal.ZERO);
+            inv.setStatus(i % 3 == 0 ? InvoiceStatus.UNPAID : InvoiceStatus.PARTIALLY_PAID);
+            invoices.add(inv);
+        }
+    }
+
+    @Benchmark
+    public void remainingAmount(Blackhole bh) {
+        for (Invoice inv : invoices) {
+            bh.consume(inv.getRemainingAmount());
+        }
+    }
+
+    // Ödeme POST'unun ön kontrolü: controller'ın kullandığı parse + kalan tutarla karşılaştırma
+    @Benchmark
+    public void parseAndCheckAmount(Blackhole bh) {
+        for (int i = 0; i < invoices.size(); i++) {
+            BigDecimal amount = PaymentPostingService.parseAmount(amounts[i % amounts.length]);
+            bh.consume(amount != null && amount.compareTo(invoices.get(i).getRemainingAmount()) <= 0);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ece.dental_clinic.benchmark;
+
+import com.ece.dental_clinic.dto.BusyInterval;
+import com.ece.dental_clinic.repository.AppointmentRepository;
+import com.ece.dental_clinic.service.SlotAvailabilityIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// newAppointmentForm'un slot listesi: gün cache'te iken freeSlots ve booking öncesi çakışma kontrolü
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SlotGenerationBenchmark {
+
+    private static final long DENTIST_ID = 1L;
+
+    @Param({"0", "6", "14"})
+    public int busySlots;
+
+    private SlotAvailabilityIndex index;
+    private LocalDate date;
+    private LocalDateTime notBefore;
+    private LocalDateTime probe;
+
+    @Setup
+    public void setUp() {
+        int slotMinutes = SlotAvailabilityIndex.DEFAULT_SLOT_MINUTES;
+        int slotsPerDay = (SlotAvailabilityIndex.WORK_END.toSecondOfDay() - SlotAvailabilityIndex.WORK_START.toSecondOfDay())
+                / 60 / slotMinutes;
+
+        date = LocalDate.now().plusDays(7);
+        List<BusyInterval> busy = Fixtures.busyIntervals(date, busySlots, slotMinutes, slotsPerDay);
+        index = new SlotAvailabilityIndex(
+                Fixtures.repository(AppointmentRepository.class, "findBusyIntervals", args -> busy));
+
+        notBefore = date.atStartOfDay();
+        probe = date.atTime(13, 30);
+        // İlk çağrı günü cache'e alır; ölçülen kısım yalnızca bellek içi iş
+        index.freeSlots(DENTIST_ID, date, slotMinutes, notBefore);
+    }
+
+    @Benchmark
+    public List<LocalDateTime> freeSlots30() {
+        return index.freeSlots(DENTIST_ID, date, 30, notBefore);
+    }
+
+    @Benchmark
+    public List<LocalDateTime> freeSlots45() {
+        return index.freeSlots(DENTIST_ID, date, 45, notBefore);
+    }
+
+    @Benchmark
+    public boolean hasConflict() {
+        return index.hasConflict(DENTIST_ID, probe, SlotAvailabilityIndex.DEFAULT_SLOT_MINUTES);
+    }
+}
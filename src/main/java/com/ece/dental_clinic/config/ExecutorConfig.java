@@ -0,0 +1,69 @@
+package com.ece.dental_clinic.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    // spring.threads.virtual.enabled açıkken (Java 21+) Tomcat ve @Async ile birlikte bu havuzlar da
+    // virtual thread üretir. Havuz boyutları yine sınır görevi görür: DB ve gateway'e giden eşzamanlılık artmaz.
+    // Proje Java 17 hedefler; Threading.VIRTUAL bayrak açık olsa da Java 21 altında false döner, Boot'un kendisi gibi.
+    private final boolean virtualThreads;
+
+    public ExecutorConfig(Environment environment) {
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor availabilitySearchExecutor(
+            @Value("${clinic.availability.search-threads:8}") int threads
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("availability-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(10_000);
+        executor.setVirtualThreads(virtualThreads);
+        executor.initialize();
+        return executor;
+    }
+
+    // Gateway çağrıları saniyeler sürebilir; Tomcat thread'i yerine bu sınırlı havuz bekler.
+    // Kuyruk dolarsa görev reddedilir ve ödeme FAILED olarak kapatılır.
+    @Bean
+    public ThreadPoolTaskExecutor paymentExecutor(
+            @Value("${clinic.payments.worker-threads:16}") int threads,
+            @Value("${clinic.payments.queue-capacity:1000}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("payment-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setVirtualThreads(virtualThreads);
+        executor.initialize();
+        return executor;
+    }
+
+    // CSV export akışları (StreamingResponseBody) bu havuzda yazılır. Her akış export boyunca bir DB bağlantısı
+    // tuttuğu için havuz küçük tutulur; kuyruk doluysa istek reddedilir.
+    @Bean
+    public ThreadPoolTaskExecutor exportExecutor(
+            @Value("${clinic.export.threads:4}") int threads,
+            @Value("${clinic.export.queue-capacity:20}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("export-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setVirtualThreads(virtualThreads);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,59 @@
+package com.ece.dental_clinic.config;
+
+import com.ece.dental_clinic.service.RevenueReportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+// Gelir özetini ham ödemelerden yeniden kuran komut. Uygulama rebuild'den sonra kapanır:
+//   java -jar dental_clinic.jar --clinic.revenue.rebuild=true --spring.main.web-application-type=none
+//   (isteğe bağlı: --clinic.revenue.rebuild-from=2025-01-01 --clinic.revenue.rebuild-to=2025-12-31)
+// Rebuild hata verirse başlatma başarısız olur ve Spring context'i kapatır.
+@Component
+@ConditionalOnProperty(name = "clinic.revenue.rebuild", havingValue = "true")
+public class RevenueRebuildRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RevenueRebuildRunner.class);
+
+    private final RevenueReportService revenueReportService;
+    private final ConfigurableApplicationContext context;
+    private final String from;
+    private final String to;
+
+    public RevenueRebuildRunner(RevenueReportService revenueReportService,
+                                ConfigurableApplicationContext context,
+                                @Value("${clinic.revenue.rebuild-from:}") String from,
+                                @Value("${clinic.revenue.rebuild-to:}") String to) {
+        this.revenueReportService = revenueReportService;
+        this.context = context;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        LocalDate fromDate = from.isBlank() ? null : LocalDate.parse(from);
+        LocalDate toDate = to.isBlank() ? LocalDate.now() : LocalDate.parse(to);
+
+        long started = System.nanoTime();
+        long rows = revenueReportService.rebuild(fromDate, toDate);
+        log.info("revenue_daily yeniden oluşturuldu: {} satır, {} - {}, {} ms",
+                rows, fromDate != null ? fromDate : "ilk ödeme", toDate, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Runner'lar bittikten sonra context kapatılır; zamanlanmış işler ve havuzlar Spring'in kapanışıyla durur
+    @EventListener(ApplicationReadyEvent.class)
+    public void shutdown() {
+        SpringApplication.exit(context);
+    }
+}
@@ -43,6 +43,7 @@ public class SecurityConfig {
                         .requestMatchers("/", "/login", "/register", "/register/**").permitAll()
                         .requestMatchers("/patient/**").hasRole("PATIENT")
                         .requestMatchers("/dentist/**").hasRole("DENTIST")
+                        .requestMatchers("/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .formLogin(form -> form
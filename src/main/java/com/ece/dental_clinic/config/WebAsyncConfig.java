@@ -0,0 +1,29 @@
+package com.ece.dental_clinic.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Uygulamadaki tek async MVC kullanımı CSV export. Varsayılan executor her akış için yeni thread açar ve
+// container'ın 30 sn'lik async timeout'u büyük export'ları yarıda keser.
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    private final ThreadPoolTaskExecutor exportExecutor;
+    private final long timeoutMillis;
+
+    public WebAsyncConfig(@Qualifier("exportExecutor") ThreadPoolTaskExecutor exportExecutor,
+                          @Value("${clinic.export.timeout-minutes:30}") long timeoutMinutes) {
+        this.exportExecutor = exportExecutor;
+        this.timeoutMillis = timeoutMinutes * 60_000;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(exportExecutor);
+        configurer.setDefaultTimeout(timeoutMillis);
+    }
+}
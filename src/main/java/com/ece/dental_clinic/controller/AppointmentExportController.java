@@ -0,0 +1,42 @@
+package com.ece.dental_clinic.controller;
+
+import com.ece.dental_clinic.security.ClinicUserDetails;
+import com.ece.dental_clinic.service.AppointmentExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+@Controller
+public class AppointmentExportController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private final AppointmentExportService appointmentExportService;
+
+    public AppointmentExportController(AppointmentExportService appointmentExportService) {
+        this.appointmentExportService = appointmentExportService;
+    }
+
+    // Gövde export havuzunda yazılır; Tomcat thread'i hemen serbest kalır
+    @GetMapping("/dentist/appointments/export")
+    public ResponseEntity<StreamingResponseBody> exportHistory(Authentication authentication) {
+        // Security context async thread'e taşınmaz; hekim id'si burada alınır
+        Long dentistId = ClinicUserDetails.from(authentication).getDentistId();
+
+        String fileName = "randevular-" + dentistId + "-" + LocalDate.now() + ".csv";
+        StreamingResponseBody body = out -> appointmentExportService.writeDentistHistory(dentistId, out);
+
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+}
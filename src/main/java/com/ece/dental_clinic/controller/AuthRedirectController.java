@@ -11,8 +11,12 @@ public class AuthRedirectController {
     public String afterLogin(Authentication authentication) {
         boolean isDentist = authentication.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_DENTIST"));
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
 
-        if (isDentist) {
+        if (isAdmin) {
+            return "redirect:/admin/import";
+        } else if (isDentist) {
             return "redirect:/dentist/home";
         } else {
             return "redirect:/patient/home";
@@ -0,0 +1,66 @@
+package com.ece.dental_clinic.controller;
+
+import com.ece.dental_clinic.dto.ImportReport;
+import com.ece.dental_clinic.enums.ImportKind;
+import com.ece.dental_clinic.security.ClinicUserDetails;
+import com.ece.dental_clinic.service.BulkImportService;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@Controller
+public class BulkImportController {
+
+    private final BulkImportService bulkImportService;
+
+    public BulkImportController(BulkImportService bulkImportService) {
+        this.bulkImportService = bulkImportService;
+    }
+
+    @GetMapping("/admin/import")
+    public String importForm(Model model) {
+        model.addAttribute("kinds", ImportKind.values());
+        return "admin-import";
+    }
+
+    @PostMapping("/admin/import")
+    public String importFile(@RequestParam("kind") String kindRaw,
+                             @RequestParam("file") MultipartFile file,
+                             Authentication authentication,
+                             Model model) throws IOException {
+
+        // Hekim ve randevular her zaman yöneticinin kliniğine yazılır
+        Long clinicId = ClinicUserDetails.from(authentication).getAdminClinicId();
+        if (clinicId == null) {
+            throw new RuntimeException("Yönetici hesabı bir kliniğe bağlı değil.");
+        }
+
+        ImportKind kind;
+        try {
+            kind = ImportKind.valueOf(kindRaw.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Geçersiz aktarım türü: " + kindRaw);
+        }
+        if (file.isEmpty()) {
+            throw new RuntimeException("Dosya seçilmedi.");
+        }
+
+        // Multipart dosya diskte durur; stream üzerinden okunur, tamamı belleğe alınmaz
+        ImportReport report;
+        try (InputStream in = file.getInputStream()) {
+            report = bulkImportService.importCsv(kind, clinicId, in);
+        }
+
+        model.addAttribute("kinds", ImportKind.values());
+        model.addAttribute("selectedKind", kind);
+        model.addAttribute("report", report);
+        return "admin-import";
+    }
+}
@@ -1,45 +1,56 @@
 package com.ece.dental_clinic.controller;
 
+import com.ece.dental_clinic.dto.AppointmentDashboardRow;
+import com.ece.dental_clinic.dto.SeekPage;
+import com.ece.dental_clinic.dto.SeekRequest;
 import com.ece.dental_clinic.entity.Appointment;
-import com.ece.dental_clinic.entity.AppointmentTreatment;
 import com.ece.dental_clinic.entity.Invoice;
 import com.ece.dental_clinic.enums.AppointmentStatus;
 import com.ece.dental_clinic.enums.InvoiceStatus;
 import com.ece.dental_clinic.repository.AppointmentRepository;
-import com.ece.dental_clinic.repository.AppointmentTreatmentRepository;
+import com.ece.dental_clinic.repository.AppointmentDashboardRepository;
 import com.ece.dental_clinic.repository.InvoiceRepository;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.jdbc.core.JdbcTemplate;
+import com.ece.dental_clinic.security.ClinicUserDetails;
+import com.ece.dental_clinic.service.AppointmentStatusCounters;
+import com.ece.dental_clinic.service.InvoiceGenerationService;
+import com.ece.dental_clinic.service.PatientNameIndex;
+import com.ece.dental_clinic.service.SlotAvailabilityIndex;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.Optional;
 
 @Controller
 public class DentistController {
 
     private final AppointmentRepository appointmentRepository;
-    private final AppointmentTreatmentRepository appointmentTreatmentRepository;
+    private final AppointmentDashboardRepository appointmentDashboardRepository;
     private final InvoiceRepository invoiceRepository;
-    private final JdbcTemplate jdbcTemplate;
+    private final InvoiceGenerationService invoiceGenerationService;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final PatientNameIndex patientNameIndex;
+    private final AppointmentStatusCounters statusCounters;
 
     public DentistController(
             AppointmentRepository appointmentRepository,
-            AppointmentTreatmentRepository appointmentTreatmentRepository,
+            AppointmentDashboardRepository appointmentDashboardRepository,
             InvoiceRepository invoiceRepository,
-            JdbcTemplate jdbcTemplate
+            InvoiceGenerationService invoiceGenerationService,
+            SlotAvailabilityIndex slotAvailabilityIndex,
+            PatientNameIndex patientNameIndex,
+            AppointmentStatusCounters statusCounters
     ) {
         this.appointmentRepository = appointmentRepository;
-        this.appointmentTreatmentRepository = appointmentTreatmentRepository;
+        this.appointmentDashboardRepository = appointmentDashboardRepository;
         this.invoiceRepository = invoiceRepository;
-        this.jdbcTemplate = jdbcTemplate;
+        this.invoiceGenerationService = invoiceGenerationService;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.patientNameIndex = patientNameIndex;
+        this.statusCounters = statusCounters;
     }
 
     @GetMapping("/dentist/home")
@@ -50,16 +61,11 @@ public class DentistController {
             @RequestParam(value = "days", required = false, defaultValue = "30") int days,
             @RequestParam(value = "status", required = false) String statusRaw,
             @RequestParam(value = "patientName", required = false) String patientName,
-            @RequestParam(value = "page", required = false, defaultValue = "0") int page,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "before", required = false) String before,
             @RequestParam(value = "err", required = false) String err
     ) {
-        appointmentRepository.expirePastAppointments(
-                LocalDateTime.now(),
-                AppointmentStatus.EXPIRED,
-                List.of(AppointmentStatus.COMPLETED, AppointmentStatus.CANCELLED, AppointmentStatus.EXPIRED)
-        );
-
-        String email = authentication.getName();
+        Long dentistId = ClinicUserDetails.from(authentication).getDentistId();
 
         String statusForDb = null;
         if (statusRaw != null && !statusRaw.isBlank()) {
@@ -71,52 +77,26 @@ public class DentistController {
             fromDate = LocalDateTime.now().minusDays(Math.max(days, 1));
         }
 
-        Pageable pageable = PageRequest.of(Math.max(page, 0), 10);
-        Page<Appointment> apPage = appointmentRepository.pageDentistAppointments(
-                email,
+        long[] patientIds = null;
+        if (patientName != null && !patientName.isBlank()) {
+            patientIds = patientNameIndex.search(patientName);
+        }
+
+        SeekPage<AppointmentDashboardRow> apPage = appointmentDashboardRepository.seekDentistRows(
+                dentistId,
                 fromDate,
                 null,
                 statusForDb,
-                patientName,
-                pageable
+                patientIds,
+                SeekRequest.of(after, before, 10)
         );
 
-        List<Appointment> appointments = apPage.getContent();
-        model.addAttribute("apPage", apPage);
-        model.addAttribute("appointments", appointments);
-
-        Map<Long, String> treatmentByAppointmentId = new HashMap<>();
-        List<Long> ids = appointments.stream()
-                .map(Appointment::getId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-
-        if (!ids.isEmpty()) {
-            List<AppointmentTreatment> ats = appointmentTreatmentRepository.findByAppointment_IdIn(ids);
-
-            Map<Long, List<AppointmentTreatment>> grouped = ats.stream()
-                    .filter(at -> at.getAppointment() != null && at.getAppointment().getId() != null)
-                    .collect(Collectors.groupingBy(at -> at.getAppointment().getId()));
-
-            for (Map.Entry<Long, List<AppointmentTreatment>> e : grouped.entrySet()) {
-                String names = e.getValue().stream()
-                        .map(at -> at.getTreatment() != null ? at.getTreatment().getName() : null)
-                        .filter(Objects::nonNull)
-                        .distinct()
-                        .collect(Collectors.joining(", "));
-                treatmentByAppointmentId.put(e.getKey(), names);
-            }
-        }
-
-        model.addAttribute("treatmentByAppointmentId", treatmentByAppointmentId);
-
-        Map<Long, Long> invoiceIdByAppointmentId = new HashMap<>();
-        for (Appointment a : appointments) {
-            if (a.getId() == null) continue;
-            invoiceRepository.findByAppointment_Id(a.getId())
-                    .ifPresent(inv -> invoiceIdByAppointmentId.put(a.getId(), inv.getId()));
+        // Rozetler bellekteki sayaçlardan; panel render'ı count sorgusu çalıştırmaz
+        if (dentistId != null) {
+            model.addAttribute("badges", statusCounters.badges(dentistId));
         }
-        model.addAttribute("invoiceIdByAppointmentId", invoiceIdByAppointmentId);
+        model.addAttribute("apPage", apPage);
+        model.addAttribute("appointments", apPage.getContent());
 
         model.addAttribute("hidePast", hidePast);
         model.addAttribute("days", days);
@@ -133,14 +113,19 @@ public class DentistController {
         Appointment a = appointmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Randevu bulunamadı: " + id));
 
-        String email = authentication.getName();
-        if (a.getDentist() == null || a.getDentist().getUserAccount() == null
-                || !email.equals(a.getDentist().getUserAccount().getEmail())) {
+        Long dentistId = ClinicUserDetails.from(authentication).getDentistId();
+        if (a.getDentist() == null || !Objects.equals(a.getDentist().getId(), dentistId)) {
             throw new RuntimeException("Bu randevu üzerinde işlem yetkin yok.");
         }
 
+        // Kapanmış randevu yeniden açılmaz; slot o arada başka bir randevuya verilmiş olabilir
+        AppointmentStatus previous = a.getStatus();
+        if (previous.isFinal()) {
+            throw new RuntimeException("Bu randevunun durumu uygun değil: " + previous);
+        }
         a.setStatus(AppointmentStatus.CONFIRMED);
         appointmentRepository.save(a);
+        statusCounters.changed(dentistId, a.getAppointmentDatetime(), previous, AppointmentStatus.CONFIRMED);
         return "redirect:/dentist/home";
     }
 
@@ -149,14 +134,19 @@ public class DentistController {
         Appointment a = appointmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Randevu bulunamadı: " + id));
 
-        String email = authentication.getName();
-        if (a.getDentist() == null || a.getDentist().getUserAccount() == null
-                || !email.equals(a.getDentist().getUserAccount().getEmail())) {
+        Long dentistId = ClinicUserDetails.from(authentication).getDentistId();
+        if (a.getDentist() == null || !Objects.equals(a.getDentist().getId(), dentistId)) {
             throw new RuntimeException("Bu randevu üzerinde işlem yetkin yok.");
         }
 
+        AppointmentStatus previous = a.getStatus();
         a.setStatus(AppointmentStatus.CANCELLED);
         appointmentRepository.save(a);
+        statusCounters.changed(dentistId, a.getAppointmentDatetime(), previous, AppointmentStatus.CANCELLED);
+        // Slot zaten bırakıldıysa aynı dakikadaki yeni randevunun aralığını silmemek için tekrar bırakma
+        if (!previous.isFinal()) {
+            slotAvailabilityIndex.markReleased(a.getDentist().getId(), a.getAppointmentDatetime());
+        }
         return "redirect:/dentist/home";
     }
 
@@ -165,20 +155,21 @@ public class DentistController {
         Appointment a = appointmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Randevu bulunamadı: " + id));
 
-        String email = authentication.getName();
-        if (a.getDentist() == null || a.getDentist().getUserAccount() == null
-                || !email.equals(a.getDentist().getUserAccount().getEmail())) {
+        Long dentistId = ClinicUserDetails.from(authentication).getDentistId();
+        if (a.getDentist() == null || !Objects.equals(a.getDentist().getId(), dentistId)) {
             throw new RuntimeException("Bu randevu üzerinde işlem yetkin yok.");
         }
 
+        AppointmentStatus previous = a.getStatus();
         a.setStatus(AppointmentStatus.COMPLETED);
         appointmentRepository.save(a);
-
-        if (!invoiceRepository.existsByAppointment_Id(a.getId())) {
-            LocalDate due = LocalDate.now().plusDays(30);
-            jdbcTemplate.update("call generate_invoice_for_appointment(?, ?)", a.getId(), due);
+        statusCounters.changed(dentistId, a.getAppointmentDatetime(), previous, AppointmentStatus.COMPLETED);
+        if (!previous.isFinal()) {
+            slotAvailabilityIndex.markReleased(a.getDentist().getId(), a.getAppointmentDatetime());
         }
 
+        invoiceGenerationService.generateFor(a.getId());
+
         return "redirect:/dentist/home";
     }
 
@@ -187,15 +178,13 @@ public class DentistController {
         Appointment a = appointmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Randevu bulunamadı: " + id));
 
-        String email = authentication.getName();
-        if (a.getDentist() == null || a.getDentist().getUserAccount() == null
-                || !email.equals(a.getDentist().getUserAccount().getEmail())) {
+        Long dentistId = ClinicUserDetails.from(authentication).getDentistId();
+        if (a.getDentist() == null || !Objects.equals(a.getDentist().getId(), dentistId)) {
             throw new RuntimeException("Bu randevu üzerinde işlem yetkin yok.");
         }
 
-        if (!(a.getStatus() == AppointmentStatus.COMPLETED
-                || a.getStatus() == AppointmentStatus.CANCELLED
-                || a.getStatus() == AppointmentStatus.EXPIRED)) {
+        AppointmentStatus effective = a.getEffectiveStatus();
+        if (effective == null || !effective.isFinal()) {
             throw new RuntimeException("Aktif randevu arşivlenemez.");
         }
 
@@ -209,6 +198,7 @@ public class DentistController {
 
         a.setArchivedAt(LocalDateTime.now());
         appointmentRepository.save(a);
+        statusCounters.archived(dentistId, a.getStatus());
         return "redirect:/dentist/home";
     }
 
@@ -217,11 +207,10 @@ public class DentistController {
         Invoice inv = invoiceRepository.findById(invoiceId)
                 .orElseThrow(() -> new RuntimeException("Fatura bulunamadı: " + invoiceId));
 
-        String email = authentication.getName();
+        Long dentistId = ClinicUserDetails.from(authentication).getDentistId();
         boolean isOwner = inv.getAppointment() != null
                 && inv.getAppointment().getDentist() != null
-                && inv.getAppointment().getDentist().getUserAccount() != null
-                && email.equals(inv.getAppointment().getDentist().getUserAccount().getEmail());
+                && Objects.equals(inv.getAppointment().getDentist().getId(), dentistId);
 
         if (!isOwner) throw new RuntimeException("Bu faturayı görme yetkin yok.");
 
@@ -1,9 +1,21 @@
 package com.ece.dental_clinic.controller;
 
+import com.ece.dental_clinic.dto.AppointmentDashboardRow;
+import com.ece.dental_clinic.dto.AvailableSlot;
+import com.ece.dental_clinic.dto.DentistSummary;
+import com.ece.dental_clinic.dto.SeekPage;
+import com.ece.dental_clinic.dto.SeekRequest;
 import com.ece.dental_clinic.entity.*;
 import com.ece.dental_clinic.enums.*;
 import com.ece.dental_clinic.repository.*;
-import org.springframework.data.domain.*;
+import com.ece.dental_clinic.security.ClinicUserDetails;
+import com.ece.dental_clinic.service.AppointmentBookingService;
+import com.ece.dental_clinic.service.AppointmentStatusCounters;
+import com.ece.dental_clinic.service.DentistDirectory;
+import com.ece.dental_clinic.service.EarliestAvailabilityService;
+import com.ece.dental_clinic.service.IdempotencyService;
+import com.ece.dental_clinic.service.SlotAvailabilityIndex;
+import com.ece.dental_clinic.service.TreatmentCatalog;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -18,30 +30,54 @@ import java.util.stream.Collectors;
 public class PatientController {
 
     private final AppointmentRepository appointmentRepository;
+    private final AppointmentDashboardRepository appointmentDashboardRepository;
     private final PatientRepository patientRepository;
     private final DentistRepository dentistRepository;
-    private final TreatmentRepository treatmentRepository;
-    private final AppointmentTreatmentRepository appointmentTreatmentRepository;
+    private final DentistDirectory dentistDirectory;
+    private final TreatmentCatalog treatmentCatalog;
     private final InvoiceRepository invoiceRepository;
+    private final ClinicRepository clinicRepository;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final AppointmentBookingService appointmentBookingService;
+    private final EarliestAvailabilityService earliestAvailabilityService;
+    private final IdempotencyService idempotencyService;
+    private final AppointmentStatusCounters statusCounters;
 
-    private static final int DEFAULT_SLOT_MINUTES = 30;
-    private static final LocalTime WORK_START = LocalTime.of(9, 0);
-    private static final LocalTime WORK_END = LocalTime.of(17, 0);
+    private static final LocalTime WORK_START = SlotAvailabilityIndex.WORK_START;
+    private static final LocalTime WORK_END = SlotAvailabilityIndex.WORK_END;
+
+    private static final int EARLIEST_DEFAULT_DAYS = 14;
+    private static final int EARLIEST_MAX_DAYS = 60;
+    private static final int EARLIEST_MAX_RESULTS = 50;
 
     public PatientController(
             AppointmentRepository appointmentRepository,
+            AppointmentDashboardRepository appointmentDashboardRepository,
             PatientRepository patientRepository,
             DentistRepository dentistRepository,
-            TreatmentRepository treatmentRepository,
-            AppointmentTreatmentRepository appointmentTreatmentRepository,
-            InvoiceRepository invoiceRepository
+            DentistDirectory dentistDirectory,
+            TreatmentCatalog treatmentCatalog,
+            InvoiceRepository invoiceRepository,
+            ClinicRepository clinicRepository,
+            SlotAvailabilityIndex slotAvailabilityIndex,
+            AppointmentBookingService appointmentBookingService,
+            EarliestAvailabilityService earliestAvailabilityService,
+            IdempotencyService idempotencyService,
+            AppointmentStatusCounters statusCounters
     ) {
         this.appointmentRepository = appointmentRepository;
+        this.appointmentDashboardRepository = appointmentDashboardRepository;
         this.patientRepository = patientRepository;
         this.dentistRepository = dentistRepository;
-        this.treatmentRepository = treatmentRepository;
-        this.appointmentTreatmentRepository = appointmentTreatmentRepository;
+        this.dentistDirectory = dentistDirectory;
+        this.treatmentCatalog = treatmentCatalog;
         this.invoiceRepository = invoiceRepository;
+        this.clinicRepository = clinicRepository;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.appointmentBookingService = appointmentBookingService;
+        this.earliestAvailabilityService = earliestAvailabilityService;
+        this.idempotencyService = idempotencyService;
+        this.statusCounters = statusCounters;
     }
 
     @GetMapping("/patient/home")
@@ -52,15 +88,10 @@ public class PatientController {
             @RequestParam(value = "days", required = false, defaultValue = "30") int days,
             @RequestParam(value = "status", required = false) String statusRaw,
             @RequestParam(value = "dentistId", required = false) Long dentistId,
-            @RequestParam(value = "page", required = false, defaultValue = "0") int page
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "before", required = false) String before
     ) {
-        appointmentRepository.expirePastAppointments(
-                LocalDateTime.now(),
-                AppointmentStatus.EXPIRED,
-                List.of(AppointmentStatus.COMPLETED, AppointmentStatus.CANCELLED, AppointmentStatus.EXPIRED)
-        );
-
-        String email = authentication.getName();
+        Long patientId = ClinicUserDetails.from(authentication).getPatientId();
 
         AppointmentStatus status = null;
         if (statusRaw != null && !statusRaw.isBlank()) {
@@ -72,52 +103,19 @@ public class PatientController {
             fromDate = LocalDateTime.now().minusDays(Math.max(days, 1));
         }
 
-        Pageable pageable = PageRequest.of(Math.max(page, 0), 10); // 10 satır/sayfa
-        Page<Appointment> apPage = appointmentRepository.pagePatientAppointments(
-                email, fromDate, null, status, dentistId, pageable
+        SeekPage<AppointmentDashboardRow> apPage = appointmentDashboardRepository.seekPatientRows(
+                patientId, fromDate, null, status, dentistId,
+                SeekRequest.of(after, before, 10) // 10 satır/sayfa
         );
 
-        List<Appointment> appointments = apPage.getContent();
         model.addAttribute("apPage", apPage);
-        model.addAttribute("appointments", appointments);
-
-        Map<Long, String> treatmentByAppointmentId = new HashMap<>();
-        List<Long> appointmentIds = appointments.stream()
-                .map(Appointment::getId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-
-        if (!appointmentIds.isEmpty()) {
-            List<AppointmentTreatment> ats = appointmentTreatmentRepository.findByAppointment_IdIn(appointmentIds);
-
-            Map<Long, List<AppointmentTreatment>> grouped = ats.stream()
-                    .filter(at -> at.getAppointment() != null && at.getAppointment().getId() != null)
-                    .collect(Collectors.groupingBy(at -> at.getAppointment().getId()));
-
-            for (Map.Entry<Long, List<AppointmentTreatment>> e : grouped.entrySet()) {
-                String names = e.getValue().stream()
-                        .map(at -> at.getTreatment() != null ? at.getTreatment().getName() : null)
-                        .filter(Objects::nonNull)
-                        .distinct()
-                        .collect(Collectors.joining(", "));
-                treatmentByAppointmentId.put(e.getKey(), names);
-            }
-        }
-
-        Map<Long, Invoice> invoiceByAppointmentId = new HashMap<>();
-        for (Long appointmentId : appointmentIds) {
-            invoiceRepository.findByAppointment_Id(appointmentId)
-                    .ifPresent(inv -> invoiceByAppointmentId.put(appointmentId, inv));
-        }
-
-        model.addAttribute("treatmentByAppointmentId", treatmentByAppointmentId);
-        model.addAttribute("invoiceByAppointmentId", invoiceByAppointmentId);
+        model.addAttribute("appointments", apPage.getContent());
 
         model.addAttribute("hidePast", hidePast);
         model.addAttribute("days", days);
         model.addAttribute("statusRaw", statusRaw);
         model.addAttribute("dentistId", dentistId);
-        model.addAttribute("dentists", dentistRepository.findAll());
+        model.addAttribute("dentists", dentistDirectory.findAll());
         model.addAttribute("statuses", AppointmentStatus.values());
 
         return "patient-home";
@@ -128,15 +126,13 @@ public class PatientController {
         Appointment a = appointmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Randevu bulunamadı: " + id));
 
-        String email = authentication.getName();
-        if (a.getPatient() == null || a.getPatient().getUserAccount() == null
-                || !email.equals(a.getPatient().getUserAccount().getEmail())) {
+        Long patientId = ClinicUserDetails.from(authentication).getPatientId();
+        if (a.getPatient() == null || !Objects.equals(a.getPatient().getId(), patientId)) {
             throw new RuntimeException("Bu randevu üzerinde işlem yetkin yok.");
         }
 
-        if (!(a.getStatus() == AppointmentStatus.COMPLETED
-                || a.getStatus() == AppointmentStatus.CANCELLED
-                || a.getStatus() == AppointmentStatus.EXPIRED)) {
+        AppointmentStatus effective = a.getEffectiveStatus();
+        if (effective == null || !effective.isFinal()) {
             throw new RuntimeException("Aktif randevu arşivlenemez.");
         }
 
@@ -161,59 +157,32 @@ public class PatientController {
             @RequestParam(value = "date", required = false) String dateStr,
             Model model
     ) {
-        model.addAttribute("dentists", dentistRepository.findAll());
-        model.addAttribute("treatments", treatmentRepository.findByActiveTrueOrderByNameAsc());
+        model.addAttribute("dentists", dentistDirectory.findAll());
+        model.addAttribute("treatments", treatmentCatalog.findActive());
+        model.addAttribute("clinics", clinicRepository.findAll());
 
         model.addAttribute("selectedDentistId", dentistId);
         model.addAttribute("selectedTreatmentId", treatmentId);
         model.addAttribute("selectedDate", dateStr);
 
-        Integer slotMinutes = null;
+        int slotMinutes = SlotAvailabilityIndex.DEFAULT_SLOT_MINUTES;
 
         if (treatmentId != null) {
-            Treatment selected = treatmentRepository.findById(treatmentId)
+            Treatment selected = treatmentCatalog.findById(treatmentId)
                     .orElseThrow(() -> new RuntimeException("İşlem bulunamadı: " + treatmentId));
 
-            if (selected.getDefaultDurationMinutes() != null && selected.getDefaultDurationMinutes() > 0) {
-                slotMinutes = selected.getDefaultDurationMinutes();
-            }
+            slotMinutes = SlotAvailabilityIndex.durationOf(selected.getDefaultDurationMinutes());
         }
 
-        if (slotMinutes == null) slotMinutes = DEFAULT_SLOT_MINUTES;
         model.addAttribute("slotMinutes", slotMinutes);
+        model.addAttribute("idempotencyKey", UUID.randomUUID().toString());
 
         if (dentistId != null && treatmentId != null && dateStr != null && !dateStr.isBlank()) {
             LocalDate date = LocalDate.parse(dateStr, DateTimeFormatter.ISO_LOCAL_DATE);
 
-            LocalTime lastStart = WORK_END.minusMinutes(slotMinutes);
-
-            LocalDateTime dayStart = date.atTime(WORK_START);
-            LocalDateTime dayEnd = date.atTime(WORK_END);
-
-            List<Appointment> busy = appointmentRepository
-                    .findByDentist_IdAndAppointmentDatetimeBetweenAndStatusNotInOrderByAppointmentDatetimeAsc(
-                            dentistId,
-                            dayStart,
-                            dayEnd,
-                            List.of(AppointmentStatus.CANCELLED, AppointmentStatus.COMPLETED, AppointmentStatus.EXPIRED)
-                    );
-
-            Set<LocalDateTime> busyTimes = busy.stream()
-                    .map(Appointment::getAppointmentDatetime)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toSet());
-
-            List<LocalDateTime> slots = new ArrayList<>();
-            LocalDateTime t = dayStart;
-            while (!t.toLocalTime().isAfter(lastStart)) {
-                slots.add(t);
-                t = t.plusMinutes(slotMinutes);
-            }
-
-            LocalDateTime now = LocalDateTime.now();
-            slots = slots.stream().filter(s -> !s.isBefore(now)).collect(Collectors.toList());
-
-            slots = slots.stream().filter(s -> !busyTimes.contains(s)).collect(Collectors.toList());
+            List<LocalDateTime> slots = slotAvailabilityIndex.freeSlots(
+                    dentistId, date, slotMinutes, LocalDateTime.now()
+            );
 
             model.addAttribute("slots", slots);
         }
@@ -221,26 +190,74 @@ public class PatientController {
         return "patient-appointment-new";
     }
 
+    @GetMapping("/patient/appointments/earliest")
+    public String earliestAvailable(
+            @RequestParam("treatmentId") Long treatmentId,
+            @RequestParam(value = "clinicId", required = false) Long clinicId,
+            @RequestParam(value = "from", required = false) String fromStr,
+            @RequestParam(value = "to", required = false) String toStr,
+            @RequestParam(value = "limit", required = false, defaultValue = "5") int limit,
+            Model model
+    ) {
+        Treatment treatment = treatmentCatalog.findById(treatmentId)
+                .orElseThrow(() -> new RuntimeException("İşlem bulunamadı: " + treatmentId));
+
+        LocalDate from = (fromStr != null && !fromStr.isBlank())
+                ? LocalDate.parse(fromStr, DateTimeFormatter.ISO_LOCAL_DATE)
+                : LocalDate.now();
+        if (from.isBefore(LocalDate.now())) from = LocalDate.now();
+
+        LocalDate to = (toStr != null && !toStr.isBlank())
+                ? LocalDate.parse(toStr, DateTimeFormatter.ISO_LOCAL_DATE)
+                : from.plusDays(EARLIEST_DEFAULT_DAYS);
+        if (to.isAfter(from.plusDays(EARLIEST_MAX_DAYS))) to = from.plusDays(EARLIEST_MAX_DAYS);
+
+        int slotMinutes = SlotAvailabilityIndex.durationOf(treatment.getDefaultDurationMinutes());
+        List<AvailableSlot> earliest = earliestAvailabilityService.findEarliest(
+                slotMinutes, clinicId, from, to, Math.min(Math.max(limit, 1), EARLIEST_MAX_RESULTS)
+        );
+
+        model.addAttribute("dentists", dentistDirectory.findAll());
+        model.addAttribute("treatments", treatmentCatalog.findActive());
+        model.addAttribute("clinics", clinicRepository.findAll());
+        model.addAttribute("selectedTreatmentId", treatmentId);
+        model.addAttribute("selectedClinicId", clinicId);
+        model.addAttribute("slotMinutes", slotMinutes);
+        model.addAttribute("earliestSlots", earliest);
+        model.addAttribute("idempotencyKey", UUID.randomUUID().toString());
+
+        return "patient-appointment-new";
+    }
+
     @PostMapping("/patient/appointments")
     public String createAppointment(
             Authentication authentication,
             @RequestParam("dentistId") Long dentistId,
             @RequestParam("treatmentId") Long treatmentId,
-            @RequestParam("appointmentDatetime") String appointmentDatetime
+            @RequestParam("appointmentDatetime") String appointmentDatetime,
+            @RequestParam(value = "idempotencyKey", required = false) String idempotencyKey,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyHeader
     ) {
-        String email = authentication.getName();
+        Long patientId = ClinicUserDetails.from(authentication).getPatientId();
+        if (patientId == null) {
+            throw new RuntimeException("Hasta bulunamadı: " + authentication.getName());
+        }
+
+        String key = idempotencyHeader != null ? idempotencyHeader : idempotencyKey;
+        return idempotencyService.execute("book:" + patientId, key,
+                () -> book(patientId, dentistId, treatmentId, appointmentDatetime));
+    }
 
-        Patient patient = patientRepository.findByUserAccount_Email(email)
-                .orElseThrow(() -> new RuntimeException("Hasta bulunamadı: " + email));
+    private String book(Long patientId, Long dentistId, Long treatmentId, String appointmentDatetime) {
 
-        Dentist dentist = dentistRepository.findById(dentistId)
+        DentistSummary dentist = dentistDirectory.findById(dentistId)
                 .orElseThrow(() -> new RuntimeException("Diş Hekimi bulunamadı: " + dentistId));
 
-        if (dentist.getClinic() == null) {
+        if (dentist.getClinicId() == null) {
             throw new RuntimeException("Seçilen doktorun clinic bilgisi yok. dentist_id=" + dentistId);
         }
 
-        Treatment treatment = treatmentRepository.findById(treatmentId)
+        Treatment treatment = treatmentCatalog.findById(treatmentId)
                 .orElseThrow(() -> new RuntimeException("İşlem bulunamadı: " + treatmentId));
 
         LocalDateTime dt = LocalDateTime.parse(appointmentDatetime, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
@@ -249,9 +266,7 @@ public class PatientController {
             throw new RuntimeException("Geçmiş bir tarih/saat için randevu alınamaz.");
         }
 
-        int slotMinutes = (treatment.getDefaultDurationMinutes() != null && treatment.getDefaultDurationMinutes() > 0)
-                ? treatment.getDefaultDurationMinutes()
-                : DEFAULT_SLOT_MINUTES;
+        int slotMinutes = SlotAvailabilityIndex.durationOf(treatment.getDefaultDurationMinutes());
 
         LocalTime time = dt.toLocalTime();
         LocalTime lastStart = WORK_END.minusMinutes(slotMinutes);
@@ -264,36 +279,14 @@ public class PatientController {
             throw new RuntimeException("Randevu saati " + slotMinutes + " dakikalık aralıklara uygun olmalı.");
         }
 
-        boolean occupied = appointmentRepository.existsByDentist_IdAndAppointmentDatetimeAndStatusNotIn(
-                dentistId,
-                dt,
-                List.of(AppointmentStatus.CANCELLED, AppointmentStatus.COMPLETED, AppointmentStatus.EXPIRED)
+        appointmentBookingService.book(
+                patientRepository.getReferenceById(patientId),
+                dentistRepository.getReferenceById(dentistId),
+                clinicRepository.getReferenceById(dentist.getClinicId()),
+                treatment,
+                dt
         );
 
-        if (occupied) {
-            throw new RuntimeException("Bu doktorun bu tarih/saat için zaten randevusu var.");
-        }
-
-        Appointment a = new Appointment();
-        a.setPatient(patient);
-        a.setDentist(dentist);
-        a.setClinic(dentist.getClinic());
-        a.setAppointmentDatetime(dt);
-        a.setStatus(AppointmentStatus.SCHEDULED);
-        appointmentRepository.save(a);
-
-        double unitPrice = (treatment.getDefaultPrice() != null) ? treatment.getDefaultPrice() : 0.0;
-        int qty = 1;
-        double totalPrice = unitPrice * qty;
-
-        AppointmentTreatment at = new AppointmentTreatment();
-        at.setAppointment(a);
-        at.setTreatment(treatment);
-        at.setQuantity(qty);
-        at.setUnitPrice(unitPrice);
-        at.setTotalPrice(totalPrice);
-        appointmentTreatmentRepository.save(at);
-
         return "redirect:/patient/home";
     }
 
@@ -303,11 +296,9 @@ public class PatientController {
         Appointment a = appointmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Randevu bulunamadı: " + id));
 
-        String email = authentication.getName();
+        Long patientId = ClinicUserDetails.from(authentication).getPatientId();
 
-        if (a.getPatient() == null
-                || a.getPatient().getUserAccount() == null
-                || !email.equals(a.getPatient().getUserAccount().getEmail())) {
+        if (a.getPatient() == null || !Objects.equals(a.getPatient().getId(), patientId)) {
             throw new RuntimeException("Bu randevu üzerinde işlem yetkin yok.");
         }
 
@@ -326,8 +317,10 @@ public class PatientController {
             throw new RuntimeException("Bu randevunun durumu uygun değil: " + a.getStatus());
         }
 
+        AppointmentStatus previous = a.getStatus();
         a.setStatus(AppointmentStatus.PATIENT_CONFIRMED);
         appointmentRepository.save(a);
+        statusCounters.changed(a.getDentist().getId(), a.getAppointmentDatetime(), previous, AppointmentStatus.PATIENT_CONFIRMED);
 
         return "redirect:/patient/home";
     }
@@ -338,11 +331,9 @@ public class PatientController {
         Appointment a = appointmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Randevu bulunamadı: " + id));
 
-        String email = authentication.getName();
+        Long patientId = ClinicUserDetails.from(authentication).getPatientId();
 
-        if (a.getPatient() == null
-                || a.getPatient().getUserAccount() == null
-                || !email.equals(a.getPatient().getUserAccount().getEmail())) {
+        if (a.getPatient() == null || !Objects.equals(a.getPatient().getId(), patientId)) {
             throw new RuntimeException("Bu randevu üzerinde işlem yetkin yok.");
         }
 
@@ -355,8 +346,11 @@ public class PatientController {
             throw new RuntimeException("Bu randevu bu durumda iptal edilemez: " + a.getStatus());
         }
 
+        AppointmentStatus previous = a.getStatus();
         a.setStatus(AppointmentStatus.CANCELLED);
         appointmentRepository.save(a);
+        statusCounters.changed(a.getDentist().getId(), a.getAppointmentDatetime(), previous, AppointmentStatus.CANCELLED);
+        slotAvailabilityIndex.markReleased(a.getDentist().getId(), a.getAppointmentDatetime());
 
         return "redirect:/patient/home";
     }
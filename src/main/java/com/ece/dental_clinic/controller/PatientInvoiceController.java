@@ -6,6 +6,9 @@ import com.ece.dental_clinic.enums.InvoiceStatus;
 import com.ece.dental_clinic.enums.PaymentMethod;
 import com.ece.dental_clinic.repository.InvoiceRepository;
 import com.ece.dental_clinic.repository.PaymentRepository;
+import com.ece.dental_clinic.security.ClinicUserDetails;
+import com.ece.dental_clinic.service.IdempotencyService;
+import com.ece.dental_clinic.service.PaymentPostingService;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -13,8 +16,8 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 @Controller
@@ -22,11 +25,17 @@ public class PatientInvoiceController {
 
     private final InvoiceRepository invoiceRepository;
     private final PaymentRepository paymentRepository;
+    private final PaymentPostingService paymentPostingService;
+    private final IdempotencyService idempotencyService;
 
     public PatientInvoiceController(InvoiceRepository invoiceRepository,
-                                    PaymentRepository paymentRepository) {
+                                    PaymentRepository paymentRepository,
+                                    PaymentPostingService paymentPostingService,
+                                    IdempotencyService idempotencyService) {
         this.invoiceRepository = invoiceRepository;
         this.paymentRepository = paymentRepository;
+        this.paymentPostingService = paymentPostingService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping("/patient/invoices/{invoiceId}/pay")
@@ -38,16 +47,16 @@ public class PatientInvoiceController {
     public String viewInvoice(@PathVariable Long invoiceId,
                               Authentication auth,
                               Model model,
-                              @RequestParam(value = "err", required = false) String err) {
+                              @RequestParam(value = "err", required = false) String err,
+                              @RequestParam(value = "pending", required = false) String pending) {
 
         Invoice inv = invoiceRepository.findById(invoiceId)
                 .orElseThrow(() -> new RuntimeException("Fatura bulunamadı: " + invoiceId));
 
-        String email = auth.getName();
+        Long patientId = ClinicUserDetails.from(auth).getPatientId();
         boolean isOwner = inv.getAppointment() != null
                 && inv.getAppointment().getPatient() != null
-                && inv.getAppointment().getPatient().getUserAccount() != null
-                && email.equals(inv.getAppointment().getPatient().getUserAccount().getEmail());
+                && Objects.equals(inv.getAppointment().getPatient().getId(), patientId);
 
         if (!isOwner) {
             throw new RuntimeException("Bu faturayı görme yetkin yok.");
@@ -55,19 +64,10 @@ public class PatientInvoiceController {
 
         List<Payment> payments = paymentRepository.findByInvoice_IdOrderByPaymentDatetimeDesc(invoiceId);
 
-        BigDecimal paidTotal = payments.stream()
-                .map(Payment::getAmount)
-                .filter(a -> a != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal total = inv.getFinalAmount() == null
-                ? BigDecimal.ZERO
-                : BigDecimal.valueOf(inv.getFinalAmount());
-
-        BigDecimal remaining = total.subtract(paidTotal);
-        if (remaining.compareTo(BigDecimal.ZERO) < 0) {
-            remaining = BigDecimal.ZERO;
-        }
+        // Bakiye faturada tutuluyor; ödeme listesi sadece geçmiş tablosu için
+        BigDecimal paidTotal = inv.getPaidAmount();
+        BigDecimal pendingTotal = inv.getPendingAmount();
+        BigDecimal remaining = inv.getRemainingAmount();
 
         boolean overdue = inv.getDueDate() != null
                 && remaining.signum() > 0
@@ -77,9 +77,12 @@ public class PatientInvoiceController {
         model.addAttribute("invoice", inv);
         model.addAttribute("payments", payments);
         model.addAttribute("paidTotal", paidTotal);
+        model.addAttribute("pendingTotal", pendingTotal);
         model.addAttribute("remaining", remaining);
         model.addAttribute("overdue", overdue);
         model.addAttribute("err", err);
+        model.addAttribute("pending", pending != null);
+        model.addAttribute("idempotencyKey", UUID.randomUUID().toString());
 
         return "patient-invoice";
     }
@@ -92,16 +95,27 @@ public class PatientInvoiceController {
                              @RequestParam(value = "exp", required = false) String exp,
                              @RequestParam(value = "cvv", required = false) String cvv,
                              @RequestParam(value = "brand", required = false) String brand,
+                             @RequestParam(value = "idempotencyKey", required = false) String idempotencyKey,
+                             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyHeader,
                              Authentication auth) {
 
+        Long patientId = ClinicUserDetails.from(auth).getPatientId();
+        String key = idempotencyHeader != null ? idempotencyHeader : idempotencyKey;
+
+        // Aynı form iki kez gönderilirse ikinci istek ilk ödemenin sonucunu alır
+        return idempotencyService.execute("pay:" + patientId, key,
+                () -> pay(invoiceId, amountRaw, methodRaw, cardNumber, exp, cvv, brand, patientId));
+    }
+
+    private String pay(Long invoiceId, String amountRaw, String methodRaw,
+                       String cardNumber, String exp, String cvv, String brand, Long patientId) {
+
         Invoice inv = invoiceRepository.findById(invoiceId)
                 .orElseThrow(() -> new RuntimeException("Fatura bulunamadı: " + invoiceId));
 
-        String email = auth.getName();
         boolean isOwner = inv.getAppointment() != null
                 && inv.getAppointment().getPatient() != null
-                && inv.getAppointment().getPatient().getUserAccount() != null
-                && email.equals(inv.getAppointment().getPatient().getUserAccount().getEmail());
+                && Objects.equals(inv.getAppointment().getPatient().getId(), patientId);
 
         if (!isOwner) {
             throw new RuntimeException("Bu faturayı ödeme yetkin yok.");
@@ -110,34 +124,13 @@ public class PatientInvoiceController {
             throw new RuntimeException("İptal edilmiş faturaya ödeme yapılamaz.");
         }
 
-        if (amountRaw == null || amountRaw.isBlank()) {
+        BigDecimal amount = PaymentPostingService.parseAmount(amountRaw);
+        if (amount == null) {
             return "redirect:/patient/invoices/" + invoiceId + "?err=amount";
         }
 
-        BigDecimal amount;
-        try {
-            amount = new BigDecimal(amountRaw.replace(",", ".").trim());
-        } catch (Exception e) {
-            return "redirect:/patient/invoices/" + invoiceId + "?err=amount";
-        }
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            return "redirect:/patient/invoices/" + invoiceId + "?err=amount";
-        }
-
-        BigDecimal total = inv.getFinalAmount() == null
-                ? BigDecimal.ZERO
-                : BigDecimal.valueOf(inv.getFinalAmount());
-
-        BigDecimal paidTotal = paymentRepository.sumByInvoiceId(invoiceId);
-        if (paidTotal == null) {
-            paidTotal = BigDecimal.ZERO;
-        }
-
-        BigDecimal remaining = total.subtract(paidTotal);
-        if (remaining.compareTo(BigDecimal.ZERO) < 0) {
-            remaining = BigDecimal.ZERO;
-        }
-
+        // Hızlı ön kontrol; asıl garanti PaymentPostingService'teki koşullu UPDATE'te
+        BigDecimal remaining = inv.getRemainingAmount();
         if (remaining.signum() <= 0) {
             return "redirect:/patient/invoices/" + invoiceId;
         }
@@ -166,20 +159,16 @@ public class PatientInvoiceController {
                 return "redirect:/patient/invoices/" + invoiceId + "?err=brand";
             }
 
-            int lastDigit = Character.getNumericValue(digits.charAt(digits.length() - 1));
-            if (lastDigit % 2 != 0) {
-                return "redirect:/patient/invoices/" + invoiceId + "?err=3ds";
+            // Onay gateway'den asenkron gelir; sayfa ödemeyi PENDING olarak gösterir
+            if (paymentPostingService.submitCard(invoiceId, amount, brand.trim(), digits, exp, cvv).isEmpty()) {
+                return "redirect:/patient/invoices/" + invoiceId + "?err=amount";
             }
+            return "redirect:/patient/invoices/" + invoiceId + "?pending=1";
         }
 
-        Payment p = new Payment();
-        p.setInvoice(inv);
-        p.setAmount(amount);
-        p.setPaymentDatetime(LocalDateTime.now());
-        p.setPaymentMethod(method);
-        p.setPaymentStatus("SUCCESS");
-        p.setTransactionNo("TX-" + UUID.randomUUID());
-        paymentRepository.save(p);
+        if (paymentPostingService.post(invoiceId, amount, method).isEmpty()) {
+            return "redirect:/patient/invoices/" + invoiceId + "?err=amount";
+        }
 
         return "redirect:/patient/invoices/" + invoiceId;
     }
@@ -52,9 +52,12 @@ public class RegistrationController {
             } catch (IllegalArgumentException ignored) {
             }
         }
+        if (!UserRole.SELF_REGISTRABLE.contains(selectedRole)) {
+            selectedRole = UserRole.PATIENT;
+        }
 
         model.addAttribute("selectedRole", selectedRole);
-        model.addAttribute("roles", UserRole.values());
+        model.addAttribute("roles", UserRole.SELF_REGISTRABLE);
         model.addAttribute("clinics", clinicRepository.findAll());
         model.addAttribute("err", err);
 
@@ -100,6 +103,10 @@ public class RegistrationController {
         } catch (Exception e) {
             role = UserRole.PATIENT;
         }
+        // Yönetici hesabı kayıt formundan açılamaz
+        if (!UserRole.SELF_REGISTRABLE.contains(role)) {
+            role = UserRole.PATIENT;
+        }
 
         UserAccount ua = new UserAccount();
         ua.setEmail(email.trim());
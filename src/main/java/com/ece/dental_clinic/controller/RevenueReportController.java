@@ -0,0 +1,68 @@
+package com.ece.dental_clinic.controller;
+
+import com.ece.dental_clinic.dto.DentistSummary;
+import com.ece.dental_clinic.dto.RevenueRow;
+import com.ece.dental_clinic.security.ClinicUserDetails;
+import com.ece.dental_clinic.service.DentistDirectory;
+import com.ece.dental_clinic.service.RevenueReportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Controller
+public class RevenueReportController {
+
+    private final RevenueReportService revenueReportService;
+    private final DentistDirectory dentistDirectory;
+
+    public RevenueReportController(RevenueReportService revenueReportService,
+                                   DentistDirectory dentistDirectory) {
+        this.revenueReportService = revenueReportService;
+        this.dentistDirectory = dentistDirectory;
+    }
+
+    @GetMapping("/dentist/revenue")
+    public String revenue(Authentication authentication,
+                          Model model,
+                          @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                          @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                          @RequestParam(value = "unit", required = false, defaultValue = "month") String unit) {
+
+        Long dentistId = ClinicUserDetails.from(authentication).getDentistId();
+        DentistSummary dentist = dentistDirectory.findById(dentistId)
+                .orElseThrow(() -> new RuntimeException("Diş hekimi kaydı bulunamadı."));
+
+        // Varsayılan: son 12 ay
+        LocalDate toDate = to != null ? to : LocalDate.now();
+        LocalDate fromDate = from != null ? from : toDate.minusYears(1).plusDays(1);
+        if (fromDate.isAfter(toDate)) {
+            throw new RuntimeException("Başlangıç tarihi bitişten sonra olamaz.");
+        }
+        boolean monthly = !"day".equalsIgnoreCase(unit);
+
+        List<RevenueRow> byPeriod = revenueReportService.dentistRevenue(dentistId, fromDate, toDate, monthly);
+        List<RevenueRow> clinicByDentist = revenueReportService.clinicRevenueByDentist(dentist.getClinicId(), fromDate, toDate);
+
+        model.addAttribute("dentist", dentist);
+        model.addAttribute("from", fromDate);
+        model.addAttribute("to", toDate);
+        model.addAttribute("unit", monthly ? "month" : "day");
+        model.addAttribute("byPeriod", byPeriod);
+        model.addAttribute("dentistTotal", sum(byPeriod));
+        model.addAttribute("clinicByDentist", clinicByDentist);
+        model.addAttribute("clinicTotal", sum(clinicByDentist));
+
+        return "dentist-revenue";
+    }
+
+    private static BigDecimal sum(List<RevenueRow> rows) {
+        return rows.stream().map(RevenueRow::getTotal).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
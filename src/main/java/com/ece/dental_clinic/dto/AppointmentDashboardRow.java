@@ -0,0 +1,93 @@
+package com.ece.dental_clinic.dto;
+
+import com.ece.dental_clinic.enums.AppointmentStatus;
+import com.ece.dental_clinic.enums.InvoiceStatus;
+
+import java.time.LocalDateTime;
+
+public class AppointmentDashboardRow {
+
+    private final Long id;
+    private final LocalDateTime appointmentDatetime;
+    private final AppointmentStatus status;
+    private final Long patientId;
+    private final String patientName;
+    private final Long dentistId;
+    private final String dentistName;
+    private final String treatmentNames;
+    private final Long invoiceId;
+    private final InvoiceStatus invoiceStatus;
+    private final Double invoiceFinalAmount;
+
+    public AppointmentDashboardRow(Long id,
+                                   LocalDateTime appointmentDatetime,
+                                   AppointmentStatus status,
+                                   Long patientId,
+                                   String patientName,
+                                   Long dentistId,
+                                   String dentistName,
+                                   String treatmentNames,
+                                   Long invoiceId,
+                                   InvoiceStatus invoiceStatus,
+                                   Double invoiceFinalAmount) {
+        this.id = id;
+        this.appointmentDatetime = appointmentDatetime;
+        this.status = status;
+        this.patientId = patientId;
+        this.patientName = patientName;
+        this.dentistId = dentistId;
+        this.dentistName = dentistName;
+        this.treatmentNames = treatmentNames;
+        this.invoiceId = invoiceId;
+        this.invoiceStatus = invoiceStatus;
+        this.invoiceFinalAmount = invoiceFinalAmount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getAppointmentDatetime() {
+        return appointmentDatetime;
+    }
+
+    public AppointmentStatus getStatus() {
+        return status;
+    }
+
+    public AppointmentStatus getEffectiveStatus() {
+        return status == null ? null : status.effectiveAt(appointmentDatetime, LocalDateTime.now());
+    }
+
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    public String getPatientName() {
+        return patientName;
+    }
+
+    public Long getDentistId() {
+        return dentistId;
+    }
+
+    public String getDentistName() {
+        return dentistName;
+    }
+
+    public String getTreatmentNames() {
+        return treatmentNames;
+    }
+
+    public Long getInvoiceId() {
+        return invoiceId;
+    }
+
+    public InvoiceStatus getInvoiceStatus() {
+        return invoiceStatus;
+    }
+
+    public Double getInvoiceFinalAmount() {
+        return invoiceFinalAmount;
+    }
+}
@@ -0,0 +1,28 @@
+package com.ece.dental_clinic.dto;
+
+import java.time.LocalDateTime;
+
+public class AvailableSlot {
+
+    private final Long dentistId;
+    private final String dentistName;
+    private final LocalDateTime start;
+
+    public AvailableSlot(Long dentistId, String dentistName, LocalDateTime start) {
+        this.dentistId = dentistId;
+        this.dentistName = dentistName;
+        this.start = start;
+    }
+
+    public Long getDentistId() {
+        return dentistId;
+    }
+
+    public String getDentistName() {
+        return dentistName;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+}
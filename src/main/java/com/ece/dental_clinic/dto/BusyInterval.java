@@ -0,0 +1,10 @@
+package com.ece.dental_clinic.dto;
+
+import java.time.LocalDateTime;
+
+public interface BusyInterval {
+
+    LocalDateTime getStart();
+
+    Long getDurationMinutes();
+}
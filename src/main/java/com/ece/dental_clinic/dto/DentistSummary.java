@@ -0,0 +1,42 @@
+package com.ece.dental_clinic.dto;
+
+public class DentistSummary {
+
+    private final Long id;
+    private final String firstName;
+    private final String lastName;
+    private final String specialty;
+    private final Long clinicId;
+
+    public DentistSummary(Long id, String firstName, String lastName, String specialty, Long clinicId) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.specialty = specialty;
+        this.clinicId = clinicId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getDisplayName() {
+        return firstName + " " + lastName;
+    }
+
+    public String getSpecialty() {
+        return specialty;
+    }
+
+    public Long getClinicId() {
+        return clinicId;
+    }
+}
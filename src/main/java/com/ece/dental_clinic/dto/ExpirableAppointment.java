@@ -0,0 +1,16 @@
+package com.ece.dental_clinic.dto;
+
+import com.ece.dental_clinic.enums.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+public interface ExpirableAppointment {
+
+    Long getId();
+
+    Long getDentistId();
+
+    LocalDateTime getAppointmentDatetime();
+
+    AppointmentStatus getStatus();
+}
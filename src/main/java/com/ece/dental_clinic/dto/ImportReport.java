@@ -0,0 +1,77 @@
+package com.ece.dental_clinic.dto;
+
+import com.ece.dental_clinic.enums.ImportKind;
+
+import java.util.List;
+
+public class ImportReport {
+
+    private final ImportKind kind;
+    private final long totalRows;
+    private final long importedRows;
+    private final long failedRows;
+    private final long elapsedMillis;
+    private final List<RowError> errors;
+
+    public ImportReport(ImportKind kind, long totalRows, long importedRows, long failedRows,
+                        long elapsedMillis, List<RowError> errors) {
+        this.kind = kind;
+        this.totalRows = totalRows;
+        this.importedRows = importedRows;
+        this.failedRows = failedRows;
+        this.elapsedMillis = elapsedMillis;
+        this.errors = errors;
+    }
+
+    public ImportKind getKind() {
+        return kind;
+    }
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public long getImportedRows() {
+        return importedRows;
+    }
+
+    public long getFailedRows() {
+        return failedRows;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getRowsPerSecond() {
+        return elapsedMillis > 0 ? Math.round(totalRows * 1000.0 / elapsedMillis) : totalRows;
+    }
+
+    // Bellek sınırı için yalnızca ilk hatalar tutulur; failedRows tüm hataları sayar
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return failedRows > errors.size();
+    }
+
+    public static class RowError {
+
+        private final long line;
+        private final String message;
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
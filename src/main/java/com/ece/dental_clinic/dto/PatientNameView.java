@@ -0,0 +1,10 @@
+package com.ece.dental_clinic.dto;
+
+public interface PatientNameView {
+
+    Long getId();
+
+    String getFirstName();
+
+    String getLastName();
+}
@@ -0,0 +1,12 @@
+package com.ece.dental_clinic.dto;
+
+import java.math.BigDecimal;
+
+public interface PendingPayment {
+
+    Long getId();
+
+    Long getInvoiceId();
+
+    BigDecimal getAmount();
+}
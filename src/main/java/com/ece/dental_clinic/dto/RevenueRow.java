@@ -0,0 +1,41 @@
+package com.ece.dental_clinic.dto;
+
+import java.math.BigDecimal;
+
+public class RevenueRow {
+
+    // Dönem (gün/ay başı) ya da hekim adı
+    private final String label;
+    private final BigDecimal cash;
+    private final BigDecimal card;
+    private final BigDecimal total;
+    private final long payments;
+
+    public RevenueRow(String label, BigDecimal cash, BigDecimal card, BigDecimal total, long payments) {
+        this.label = label;
+        this.cash = cash;
+        this.card = card;
+        this.total = total;
+        this.payments = payments;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public BigDecimal getCash() {
+        return cash;
+    }
+
+    public BigDecimal getCard() {
+        return card;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public long getPayments() {
+        return payments;
+    }
+}
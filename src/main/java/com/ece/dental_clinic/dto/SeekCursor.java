@@ -0,0 +1,46 @@
+package com.ece.dental_clinic.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+// (appointment_datetime, id) ikilisi; sayfa sınırını offset yerine bu değerle tutar
+public class SeekCursor {
+
+    private final LocalDateTime appointmentDatetime;
+    private final Long id;
+
+    public SeekCursor(LocalDateTime appointmentDatetime, Long id) {
+        this.appointmentDatetime = appointmentDatetime;
+        this.id = id;
+    }
+
+    public static SeekCursor parse(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+        int sep = raw.lastIndexOf('_');
+        if (sep <= 0) {
+            return null;
+        }
+        try {
+            return new SeekCursor(
+                    LocalDateTime.parse(raw.substring(0, sep)),
+                    Long.parseLong(raw.substring(sep + 1))
+            );
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public String encode() {
+        return appointmentDatetime + "_" + id;
+    }
+
+    public LocalDateTime getAppointmentDatetime() {
+        return appointmentDatetime;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,36 @@
+package com.ece.dental_clinic.dto;
+
+import java.util.List;
+
+public class SeekPage<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+    private final String prevCursor;
+
+    public SeekPage(List<T> content, String nextCursor, String prevCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.prevCursor = prevCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public String getPrevCursor() {
+        return prevCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean hasPrevious() {
+        return prevCursor != null;
+    }
+}
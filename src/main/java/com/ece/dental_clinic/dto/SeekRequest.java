@@ -0,0 +1,35 @@
+package com.ece.dental_clinic.dto;
+
+public class SeekRequest {
+
+    private final SeekCursor cursor;
+    private final boolean backward;
+    private final int size;
+
+    private SeekRequest(SeekCursor cursor, boolean backward, int size) {
+        this.cursor = cursor;
+        this.backward = backward;
+        this.size = size;
+    }
+
+    // after: daha eski kayıtlar (sonraki sayfa), before: daha yeni kayıtlar (önceki sayfa)
+    public static SeekRequest of(String afterRaw, String beforeRaw, int size) {
+        SeekCursor before = SeekCursor.parse(beforeRaw);
+        if (before != null) {
+            return new SeekRequest(before, true, size);
+        }
+        return new SeekRequest(SeekCursor.parse(afterRaw), false, size);
+    }
+
+    public SeekCursor getCursor() {
+        return cursor;
+    }
+
+    public boolean isBackward() {
+        return backward;
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
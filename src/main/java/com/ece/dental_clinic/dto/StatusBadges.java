@@ -0,0 +1,46 @@
+package com.ece.dental_clinic.dto;
+
+import com.ece.dental_clinic.enums.AppointmentStatus;
+
+public class StatusBadges {
+
+    private final long[] open;
+    private final long[] today;
+
+    // Diziler AppointmentStatus.ordinal() ile indekslenir; kopya alınmış olmalı
+    public StatusBadges(long[] open, long[] today) {
+        this.open = open;
+        this.today = today;
+    }
+
+    public long open(AppointmentStatus status) {
+        return open[status.ordinal()];
+    }
+
+    public long today(AppointmentStatus status) {
+        return today[status.ordinal()];
+    }
+
+    // Bugün gelecek/gelmiş, iptal ya da süresi geçmiş olmayan randevular
+    public long getTodayActive() {
+        return today(AppointmentStatus.SCHEDULED) + today(AppointmentStatus.CONFIRMED)
+                + today(AppointmentStatus.PATIENT_CONFIRMED) + today(AppointmentStatus.COMPLETED);
+    }
+
+    public long getTodayCompleted() {
+        return today(AppointmentStatus.COMPLETED);
+    }
+
+    // Hekim onayı bekleyenler
+    public long getAwaitingConfirmation() {
+        return open(AppointmentStatus.SCHEDULED);
+    }
+
+    public long getPatientConfirmed() {
+        return open(AppointmentStatus.PATIENT_CONFIRMED);
+    }
+
+    public long getConfirmed() {
+        return open(AppointmentStatus.CONFIRMED);
+    }
+}
@@ -0,0 +1,14 @@
+package com.ece.dental_clinic.dto;
+
+import com.ece.dental_clinic.enums.AppointmentStatus;
+
+public interface StatusCount {
+
+    AppointmentStatus getStatus();
+
+    // Arşivlenmemiş randevular
+    Long getOpenCount();
+
+    // Bugünün randevuları (arşiv dahil)
+    Long getTodayCount();
+}
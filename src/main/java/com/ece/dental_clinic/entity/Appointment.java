@@ -10,18 +10,19 @@ import java.time.LocalDateTime;
 public class Appointment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointment_seq")
+    @SequenceGenerator(name = "appointment_seq", sequenceName = "appointment_id_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id", nullable = false)
     private Patient patient;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "dentist_id", nullable = false)
     private Dentist dentist;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "clinic_id", nullable = false)
     private Clinic clinic;
 
@@ -59,6 +60,11 @@ public class Appointment {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getArchivedAt() { return archivedAt; }
 
+    @Transient
+    public AppointmentStatus getEffectiveStatus() {
+        return status == null ? null : status.effectiveAt(appointmentDatetime, LocalDateTime.now());
+    }
+
     public void setId(Long id) { this.id = id; }
     public void setPatient(Patient patient) { this.patient = patient; }
     public void setDentist(Dentist dentist) { this.dentist = dentist; }
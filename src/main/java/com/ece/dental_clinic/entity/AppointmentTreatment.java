@@ -7,7 +7,8 @@ import jakarta.persistence.*;
 public class AppointmentTreatment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointment_treatment_seq")
+    @SequenceGenerator(name = "appointment_treatment_seq", sequenceName = "appointment_treatment_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
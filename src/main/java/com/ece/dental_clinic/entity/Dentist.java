@@ -4,10 +4,12 @@ import jakarta.persistence.*;
 
 @Entity
 @Table(name = "dentist")
+@EntityListeners(DentistDirectoryListener.class)
 public class Dentist {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dentist_seq")
+    @SequenceGenerator(name = "dentist_seq", sequenceName = "dentist_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
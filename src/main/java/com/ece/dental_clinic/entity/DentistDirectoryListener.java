@@ -0,0 +1,26 @@
+package com.ece.dental_clinic.entity;
+
+import com.ece.dental_clinic.service.DentistDirectory;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DentistDirectoryListener {
+
+    private final ObjectProvider<DentistDirectory> dentistDirectory;
+
+    public DentistDirectoryListener(ObjectProvider<DentistDirectory> dentistDirectory) {
+        this.dentistDirectory = dentistDirectory;
+    }
+
+    // Flush anında çağrılır; asıl temizlik invalidate içinde commit sonrasına ertelenir
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onWrite(Dentist dentist) {
+        dentistDirectory.ifAvailable(DentistDirectory::invalidate);
+    }
+}
@@ -3,6 +3,7 @@ package com.ece.dental_clinic.entity;
 import com.ece.dental_clinic.enums.InvoiceStatus;
 import jakarta.persistence.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
@@ -14,7 +15,7 @@ public class Invoice {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "appointment_id", nullable = false)
     private Appointment appointment;
 
@@ -37,6 +38,14 @@ public class Invoice {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
+    // Başarılı ödemelerin toplamı; her ödeme ile aynı UPDATE içinde artırılır
+    @Column(name = "paid_amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal paidAmount = BigDecimal.ZERO;
+
+    // Gateway sonucu beklenen kart ödemeleri; onaylanınca paidAmount'a aktarılır
+    @Column(name = "pending_amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal pendingAmount = BigDecimal.ZERO;
+
     public Invoice() {
     }
 
@@ -115,4 +124,28 @@ public class Invoice {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public BigDecimal getPaidAmount() {
+        return paidAmount;
+    }
+
+    public void setPaidAmount(BigDecimal paidAmount) {
+        this.paidAmount = paidAmount;
+    }
+
+    public BigDecimal getPendingAmount() {
+        return pendingAmount;
+    }
+
+    public void setPendingAmount(BigDecimal pendingAmount) {
+        this.pendingAmount = pendingAmount;
+    }
+
+    @Transient
+    public BigDecimal getRemainingAmount() {
+        BigDecimal total = finalAmount == null ? BigDecimal.ZERO : BigDecimal.valueOf(finalAmount);
+        BigDecimal paid = paidAmount == null ? BigDecimal.ZERO : paidAmount;
+        BigDecimal pending = pendingAmount == null ? BigDecimal.ZERO : pendingAmount;
+        return total.subtract(paid).subtract(pending).max(BigDecimal.ZERO);
+    }
 }
\ No newline at end of file
@@ -6,10 +6,12 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "patient")
+@EntityListeners(PatientNameIndexListener.class)
 public class Patient {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patient_seq")
+    @SequenceGenerator(name = "patient_seq", sequenceName = "patient_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
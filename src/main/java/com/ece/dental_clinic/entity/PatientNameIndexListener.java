@@ -0,0 +1,30 @@
+package com.ece.dental_clinic.entity;
+
+import com.ece.dental_clinic.service.PatientNameIndex;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PatientNameIndexListener {
+
+    private final ObjectProvider<PatientNameIndex> patientNameIndex;
+
+    public PatientNameIndexListener(ObjectProvider<PatientNameIndex> patientNameIndex) {
+        this.patientNameIndex = patientNameIndex;
+    }
+
+    // Flush anında, commit'ten önce çağrılır; PatientNameIndex değişikliği commit sonrasına erteler
+    @PostPersist
+    @PostUpdate
+    void onWrite(Patient patient) {
+        patientNameIndex.ifAvailable(index -> index.upsert(patient.getId(), patient.getFirstName(), patient.getLastName()));
+    }
+
+    @PostRemove
+    void onRemove(Patient patient) {
+        patientNameIndex.ifAvailable(index -> index.remove(patient.getId()));
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 
 @Entity
 @Table(name = "treatment")
+@EntityListeners(TreatmentCatalogListener.class)
 public class Treatment {
 
     @Id
@@ -0,0 +1,27 @@
+package com.ece.dental_clinic.entity;
+
+import com.ece.dental_clinic.service.TreatmentCatalog;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TreatmentCatalogListener {
+
+    // EntityManagerFactory ile döngüsel bağımlılık olmaması için catalog tembel alınır
+    private final ObjectProvider<TreatmentCatalog> treatmentCatalog;
+
+    public TreatmentCatalogListener(ObjectProvider<TreatmentCatalog> treatmentCatalog) {
+        this.treatmentCatalog = treatmentCatalog;
+    }
+
+    // Flush anında çağrılır; asıl temizlik invalidate içinde commit sonrasına ertelenir
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onWrite(Treatment treatment) {
+        treatmentCatalog.ifAvailable(TreatmentCatalog::invalidate);
+    }
+}
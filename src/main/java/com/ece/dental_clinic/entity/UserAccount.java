@@ -10,7 +10,9 @@ import java.time.LocalDateTime;
 public class UserAccount {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Blok boyutu V6 migration'ındaki "increment by 50" ile aynı olmalı
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_account_seq")
+    @SequenceGenerator(name = "user_account_seq", sequenceName = "user_account_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true, length = 255)
@@ -1,10 +1,27 @@
 package com.ece.dental_clinic.enums;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public enum AppointmentStatus {
     SCHEDULED,
     COMPLETED,
     CANCELLED,
     CONFIRMED,
     PATIENT_CONFIRMED,
-    EXPIRED
-}
\ No newline at end of file
+    EXPIRED;
+
+    public static final List<AppointmentStatus> FINAL_STATUSES = List.of(COMPLETED, CANCELLED, EXPIRED);
+
+    public boolean isFinal() {
+        return this == COMPLETED || this == CANCELLED || this == EXPIRED;
+    }
+
+    // Süresi geçmiş ama expiry job'ı henüz işlemediği randevular için okumada kullanılan durum
+    public AppointmentStatus effectiveAt(LocalDateTime appointmentDatetime, LocalDateTime now) {
+        if (!isFinal() && appointmentDatetime != null && appointmentDatetime.isBefore(now)) {
+            return EXPIRED;
+        }
+        return this;
+    }
+}
@@ -0,0 +1,20 @@
+package com.ece.dental_clinic.enums;
+
+import java.util.List;
+
+public enum ImportKind {
+    PATIENT(List.of("email", "first_name", "last_name")),
+    // Klinik dosyadan alınmaz; aktarımı yapan yöneticinin kliniğidir
+    DENTIST(List.of("email", "first_name", "last_name")),
+    APPOINTMENT(List.of("patient_email", "dentist_email", "appointment_datetime"));
+
+    private final List<String> requiredColumns;
+
+    ImportKind(List<String> requiredColumns) {
+        this.requiredColumns = requiredColumns;
+    }
+
+    public List<String> getRequiredColumns() {
+        return requiredColumns;
+    }
+}
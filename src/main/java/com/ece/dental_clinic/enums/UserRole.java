@@ -1,6 +1,12 @@
 package com.ece.dental_clinic.enums;
 
+import java.util.List;
+
 public enum UserRole {
     PATIENT,
-    DENTIST
-}
\ No newline at end of file
+    DENTIST,
+    // Kliniğe bağlı yönetici (clinic_admin); kayıt formundan seçilemez
+    ADMIN;
+
+    public static final List<UserRole> SELF_REGISTRABLE = List.of(PATIENT, DENTIST);
+}
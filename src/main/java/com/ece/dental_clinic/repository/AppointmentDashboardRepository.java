@@ -0,0 +1,172 @@
+package com.ece.dental_clinic.repository;
+
+import com.ece.dental_clinic.dto.AppointmentDashboardRow;
+import com.ece.dental_clinic.dto.SeekCursor;
+import com.ece.dental_clinic.dto.SeekPage;
+import com.ece.dental_clinic.dto.SeekRequest;
+import com.ece.dental_clinic.enums.AppointmentStatus;
+import com.ece.dental_clinic.enums.InvoiceStatus;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Repository
+public class AppointmentDashboardRepository {
+
+    // Tek sorgu: randevu + hasta/doktor adı + işlem adları + fatura
+    private static final String SELECT_ROWS = """
+            select a.id,
+                   a.appointment_datetime,
+                   a.status,
+                   p.id as patient_id,
+                   p.first_name || ' ' || p.last_name as patient_name,
+                   d.id as dentist_id,
+                   d.first_name || ' ' || d.last_name as dentist_name,
+                   t.treatment_names,
+                   i.id as invoice_id,
+                   i.status as invoice_status,
+                   i.final_amount as invoice_final_amount
+            from appointment a
+            join patient p on p.id = a.patient_id
+            join dentist d on d.id = a.dentist_id
+            left join invoice i on i.appointment_id = a.id
+            left join lateral (
+                select string_agg(distinct tr.name, ', ') as treatment_names
+                from appointment_treatment at
+                join treatment tr on tr.id = at.treatment_id
+                where at.appointment_id = a.id
+            ) t on true
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public AppointmentDashboardRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public SeekPage<AppointmentDashboardRow> seekPatientRows(Long patientId,
+                                                             LocalDateTime fromDate,
+                                                             LocalDateTime toDate,
+                                                             AppointmentStatus status,
+                                                             Long dentistId,
+                                                             SeekRequest seek) {
+        return fetch(patientQuery(patientId, fromDate, toDate, status, dentistId, seek), seek);
+    }
+
+    public SeekPage<AppointmentDashboardRow> seekDentistRows(Long dentistId,
+                                                             LocalDateTime fromDate,
+                                                             LocalDateTime toDate,
+                                                             String status,
+                                                             long[] patientIds,
+                                                             SeekRequest seek) {
+        return fetch(dentistQuery(dentistId, fromDate, toDate, status, patientIds, seek), seek);
+    }
+
+    SqlQueryBuilder patientQuery(Long patientId,
+                                 LocalDateTime fromDate,
+                                 LocalDateTime toDate,
+                                 AppointmentStatus status,
+                                 Long dentistId,
+                                 SeekRequest seek) {
+        SqlQueryBuilder query = new SqlQueryBuilder(SELECT_ROWS)
+                .where("a.patient_id = :patientId", "patientId", patientId)
+                .where("a.archived_at is null")
+                .where("a.appointment_datetime >= :fromDate", "fromDate", fromDate)
+                .where("a.appointment_datetime <= :toDate", "toDate", toDate)
+                .where("a.status = :status", "status", status != null ? status.name() : null)
+                .where("a.dentist_id = :dentistId", "dentistId", dentistId);
+        return withSeek(query, seek);
+    }
+
+    SqlQueryBuilder dentistQuery(Long dentistId,
+                                 LocalDateTime fromDate,
+                                 LocalDateTime toDate,
+                                 String status,
+                                 long[] patientIds,
+                                 SeekRequest seek) {
+        SqlQueryBuilder query = new SqlQueryBuilder(SELECT_ROWS)
+                .where("a.dentist_id = :dentistId", "dentistId", dentistId)
+                .where("a.archived_at is null")
+                .where("a.appointment_datetime >= :fromDate", "fromDate", fromDate)
+                .where("a.appointment_datetime <= :toDate", "toDate", toDate)
+                .where("a.status = :status", "status", status)
+                // Ad araması PatientNameIndex'te aday id'lere çevrilir; tek array parametresi olarak gider
+                .where("a.patient_id = any(:patientIds)", "patientIds", patientIds);
+        return withSeek(query, seek);
+    }
+
+    // Offset ve count(*) yok: sayfa sınırı (appointment_datetime, id) üzerinden index ile bulunur
+    private static SqlQueryBuilder withSeek(SqlQueryBuilder query, SeekRequest seek) {
+        SeekCursor cursor = seek.getCursor();
+        if (cursor != null) {
+            query.where(seek.isBackward()
+                            ? "(a.appointment_datetime, a.id) > (:cursorDatetime, :cursorId)"
+                            : "(a.appointment_datetime, a.id) < (:cursorDatetime, :cursorId)")
+                    .param("cursorDatetime", cursor.getAppointmentDatetime())
+                    .param("cursorId", cursor.getId());
+        }
+        // Bir fazla satır okunur; varsa o yönde devam sayfası var demektir
+        return query
+                .append(seek.isBackward()
+                        ? "order by a.appointment_datetime asc, a.id asc"
+                        : "order by a.appointment_datetime desc, a.id desc")
+                .append("limit :limit")
+                .param("limit", seek.getSize() + 1);
+    }
+
+    private SeekPage<AppointmentDashboardRow> fetch(SqlQueryBuilder query, SeekRequest seek) {
+        List<AppointmentDashboardRow> rows = new ArrayList<>(
+                jdbc.query(query.sql(), query.params(), (rs, rowNum) -> mapRow(rs))
+        );
+
+        boolean more = rows.size() > seek.getSize();
+        if (more) {
+            rows.remove(rows.size() - 1);
+        }
+        if (seek.isBackward()) {
+            Collections.reverse(rows);
+        }
+        if (rows.isEmpty()) {
+            return new SeekPage<>(rows, null, null);
+        }
+
+        boolean cursorGiven = seek.getCursor() != null;
+        boolean hasNext = seek.isBackward() ? cursorGiven : more;
+        boolean hasPrevious = seek.isBackward() ? more : cursorGiven;
+
+        return new SeekPage<>(
+                rows,
+                hasNext ? cursorOf(rows.get(rows.size() - 1)) : null,
+                hasPrevious ? cursorOf(rows.get(0)) : null
+        );
+    }
+
+    private static String cursorOf(AppointmentDashboardRow row) {
+        return new SeekCursor(row.getAppointmentDatetime(), row.getId()).encode();
+    }
+
+    private static AppointmentDashboardRow mapRow(ResultSet rs) throws SQLException {
+        String status = rs.getString("status");
+        String invoiceStatus = rs.getString("invoice_status");
+
+        return new AppointmentDashboardRow(
+                rs.getLong("id"),
+                rs.getObject("appointment_datetime", LocalDateTime.class),
+                status != null ? AppointmentStatus.valueOf(status) : null,
+                rs.getLong("patient_id"),
+                rs.getString("patient_name"),
+                rs.getLong("dentist_id"),
+                rs.getString("dentist_name"),
+                rs.getString("treatment_names"),
+                rs.getObject("invoice_id", Long.class),
+                invoiceStatus != null ? InvoiceStatus.valueOf(invoiceStatus) : null,
+                rs.getObject("invoice_final_amount", Double.class)
+        );
+    }
+}
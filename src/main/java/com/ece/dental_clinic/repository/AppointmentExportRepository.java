@@ -0,0 +1,56 @@
+package com.ece.dental_clinic.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+
+@Repository
+public class AppointmentExportRepository {
+
+    // Panel sorgusunun sayfasız hali; arşivlenmiş randevular da dahil
+    private static final String SELECT_DENTIST_HISTORY = """
+            select a.id,
+                   a.appointment_datetime,
+                   a.status,
+                   a.archived_at,
+                   u.email as patient_email,
+                   p.first_name || ' ' || p.last_name as patient_name,
+                   t.treatment_names,
+                   t.treatment_total,
+                   i.id as invoice_id,
+                   i.status as invoice_status,
+                   i.final_amount as invoice_final_amount,
+                   i.paid_amount as invoice_paid_amount
+            from appointment a
+            join patient p on p.id = a.patient_id
+            join user_account u on u.id = p.user_account_id
+            left join invoice i on i.appointment_id = a.id
+            left join lateral (
+                select string_agg(tr.name, ', ' order by at.id) as treatment_names,
+                       sum(at.total_price) as treatment_total
+                from appointment_treatment at
+                join treatment tr on tr.id = at.treatment_id
+                where at.appointment_id = a.id
+            ) t on true
+            where a.dentist_id = ?
+            order by a.appointment_datetime, a.id
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    // PostgreSQL sürücüsü fetch size'ı yalnızca autocommit kapalıyken (transaction içinde) uygular;
+    // aksi halde tüm sonuç belleğe alınır. Çağıran taraf sorguyu transaction içinde çalıştırmalı.
+    public AppointmentExportRepository(DataSource dataSource,
+                                       @Value("${clinic.export.fetch-size:1000}") int fetchSize) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(fetchSize);
+    }
+
+    // Satırlar forward-only cursor'dan okunurken tek tek handler'a verilir; liste oluşturulmaz
+    public void streamDentistHistory(Long dentistId, RowCallbackHandler handler) {
+        jdbc.query(SELECT_DENTIST_HISTORY, handler, dentistId);
+    }
+}
@@ -1,8 +1,10 @@
 package com.ece.dental_clinic.repository;
 
+import com.ece.dental_clinic.dto.BusyInterval;
+import com.ece.dental_clinic.dto.ExpirableAppointment;
+import com.ece.dental_clinic.dto.StatusCount;
 import com.ece.dental_clinic.entity.Appointment;
 import com.ece.dental_clinic.enums.AppointmentStatus;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,96 +15,68 @@ import java.util.List;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
+    // Durum sayaçları da güncellenebilsin diye hekim ve eski durumla birlikte
+    @Query("""
+        select a.id as id,
+               a.dentist.id as dentistId,
+               a.appointmentDatetime as appointmentDatetime,
+               a.status as status
+          from Appointment a
+         where a.appointmentDatetime < :now
+           and a.status not in :finalStatuses
+         order by a.appointmentDatetime asc, a.id asc
+    """)
+    List<ExpirableAppointment> findExpirable(@Param("now") LocalDateTime now,
+                                             @Param("finalStatuses") List<AppointmentStatus> finalStatuses,
+                                             Pageable pageable);
+
+    @Query("""
+        select min(a.appointmentDatetime) from Appointment a
+         where a.appointmentDatetime < :now
+           and a.status not in :finalStatuses
+    """)
+    LocalDateTime findOldestExpirableDatetime(@Param("now") LocalDateTime now,
+                                              @Param("finalStatuses") List<AppointmentStatus> finalStatuses);
+
     @Modifying
     @Transactional
     @Query("""
         update Appointment a
            set a.status = :expired
-         where a.appointmentDatetime < :now
+         where a.id in :ids
            and a.status not in :finalStatuses
     """)
-    int expirePastAppointments(@Param("now") LocalDateTime now,
-                               @Param("expired") AppointmentStatus expired,
-                               @Param("finalStatuses") List<AppointmentStatus> finalStatuses);
-
-    boolean existsByDentist_IdAndAppointmentDatetimeAndStatusNotIn(
-            Long dentistId,
-            LocalDateTime appointmentDatetime,
-            List<AppointmentStatus> statuses
-    );
-
-    List<Appointment> findByDentist_IdAndAppointmentDatetimeBetweenAndStatusNotInOrderByAppointmentDatetimeAsc(
-            Long dentistId,
-            LocalDateTime start,
-            LocalDateTime end,
-            List<AppointmentStatus> statuses
-    );
+    int expireByIds(@Param("ids") List<Long> ids,
+                    @Param("expired") AppointmentStatus expired,
+                    @Param("finalStatuses") List<AppointmentStatus> finalStatuses);
 
     @Query("""
-      select a from Appointment a
-      where a.patient.userAccount.email = :email
-        and a.archivedAt is null
-        and a.appointmentDatetime >= coalesce(:fromDate, a.appointmentDatetime)
-        and a.appointmentDatetime <= coalesce(:toDate,   a.appointmentDatetime)
-        and a.status = coalesce(:status, a.status)
-        and a.dentist.id = coalesce(:dentistId, a.dentist.id)
-      order by a.appointmentDatetime desc
+        select a.appointmentDatetime as start,
+               sum(t.defaultDurationMinutes) as durationMinutes
+          from Appointment a
+          left join AppointmentTreatment at on at.appointment = a
+          left join at.treatment t
+         where a.dentist.id = :dentistId
+           and a.appointmentDatetime >= :start
+           and a.appointmentDatetime < :end
+           and a.status not in :statuses
+         group by a.id, a.appointmentDatetime
     """)
-    Page<Appointment> pagePatientAppointments(
-            @Param("email") String email,
-            @Param("fromDate") LocalDateTime fromDate,
-            @Param("toDate") LocalDateTime toDate,
-            @Param("status") AppointmentStatus status,
-            @Param("dentistId") Long dentistId,
-            Pageable pageable
-    );
+    List<BusyInterval> findBusyIntervals(@Param("dentistId") Long dentistId,
+                                         @Param("start") LocalDateTime start,
+                                         @Param("end") LocalDateTime end,
+                                         @Param("statuses") List<AppointmentStatus> statuses);
 
-    @Query(
-            value = """
-            select a.*
-            from appointment a
-            join dentist d on d.id = a.dentist_id
-            join user_account ua on ua.id = d.user_account_id
-            join patient p on p.id = a.patient_id
-            where ua.email = :email
-              and a.archived_at is null
-              and a.appointment_datetime >= coalesce(:fromDate, a.appointment_datetime)
-              and a.appointment_datetime <= coalesce(:toDate,   a.appointment_datetime)
-              and (:status is null or a.status = cast(:status as varchar))
-              and (
-                    :patientName is null
-                 or :patientName = ''
-                 or lower(p.first_name || ' ' || p.last_name)
-                       like lower('%' || cast(:patientName as text) || '%')
-              )
-            order by a.appointment_datetime desc
-        """,
-            countQuery = """
-            select count(*)
-            from appointment a
-            join dentist d on d.id = a.dentist_id
-            join user_account ua on ua.id = d.user_account_id
-            join patient p on p.id = a.patient_id
-            where ua.email = :email
-              and a.archived_at is null
-              and a.appointment_datetime >= coalesce(:fromDate, a.appointment_datetime)
-              and a.appointment_datetime <= coalesce(:toDate,   a.appointment_datetime)
-              and (:status is null or a.status = cast(:status as varchar))
-              and (
-                    :patientName is null
-                 or :patientName = ''
-                 or lower(p.first_name || ' ' || p.last_name)
-                       like lower('%' || cast(:patientName as text) || '%')
-              )
-        """,
-            nativeQuery = true
-    )
-    Page<Appointment> pageDentistAppointments(
-            @Param("email") String email,
-            @Param("fromDate") LocalDateTime fromDate,
-            @Param("toDate") LocalDateTime toDate,
-            @Param("status") String status,
-            @Param("patientName") String patientName,
-            Pageable pageable
-    );
-}
\ No newline at end of file
+    // Durum sayaçlarının uzlaştırması: ix_appointment_dentist_datetime üzerinden tek hekimin randevuları
+    @Query("""
+        select a.status as status,
+               sum(case when a.archivedAt is null then 1 else 0 end) as openCount,
+               sum(case when a.appointmentDatetime >= :dayStart and a.appointmentDatetime < :dayEnd then 1 else 0 end) as todayCount
+          from Appointment a
+         where a.dentist.id = :dentistId
+         group by a.status
+    """)
+    List<StatusCount> countByStatus(@Param("dentistId") Long dentistId,
+                                    @Param("dayStart") LocalDateTime dayStart,
+                                    @Param("dayEnd") LocalDateTime dayEnd);
+}
@@ -1,10 +1,24 @@
 package com.ece.dental_clinic.repository;
 
+import com.ece.dental_clinic.dto.DentistSummary;
 import com.ece.dental_clinic.entity.Dentist;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface DentistRepository extends JpaRepository<Dentist, Long> {
     Optional<Dentist> findByUserAccount_Email(String email);
+
+    @Query("select d.id from Dentist d where d.userAccount.id = :userAccountId")
+    Optional<Long> findIdByUserAccountId(@Param("userAccountId") Long userAccountId);
+
+    @Query("""
+        select new com.ece.dental_clinic.dto.DentistSummary(d.id, d.firstName, d.lastName, d.specialty, d.clinic.id)
+          from Dentist d
+         order by d.firstName asc, d.lastName asc, d.id asc
+    """)
+    List<DentistSummary> findAllSummaries();
 }
\ No newline at end of file
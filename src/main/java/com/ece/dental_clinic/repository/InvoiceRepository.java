@@ -2,7 +2,11 @@ package com.ece.dental_clinic.repository;
 
 import com.ece.dental_clinic.entity.Invoice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 
 public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
@@ -10,4 +14,53 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     Optional<Invoice> findByAppointment_Id(Long appointmentId);
 
     boolean existsByAppointment_Id(Long appointmentId);
-}
\ No newline at end of file
+
+    // Tek UPDATE: satır kilidi altında bakiye kontrolü, artış ve durum geçişi birlikte yapılır.
+    // Fazla ödeme (bekleyen kart ödemeleri dahil) veya iptal edilmiş fatura durumunda 0 satır döner.
+    @Modifying
+    @Query(value = """
+        update invoice
+           set paid_amount = paid_amount + :amount,
+               status = case
+                            when paid_amount + :amount >= round(cast(final_amount as numeric), 2) then 'PAID'
+                            else 'PARTIALLY_PAID'
+                        end
+         where id = :invoiceId
+           and status <> 'CANCELLED'
+           and paid_amount + pending_amount + :amount <= round(cast(final_amount as numeric), 2)
+    """, nativeQuery = true)
+    int applyPayment(@Param("invoiceId") Long invoiceId, @Param("amount") BigDecimal amount);
+
+    // Kart ödemesi gateway'e gitmeden önce tutarı ayırır; durum değişmez
+    @Modifying
+    @Query(value = """
+        update invoice
+           set pending_amount = pending_amount + :amount
+         where id = :invoiceId
+           and status <> 'CANCELLED'
+           and paid_amount + pending_amount + :amount <= round(cast(final_amount as numeric), 2)
+    """, nativeQuery = true)
+    int reservePayment(@Param("invoiceId") Long invoiceId, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query(value = """
+        update invoice
+           set pending_amount = pending_amount - :amount,
+               paid_amount = paid_amount + :amount,
+               status = case
+                            when status = 'CANCELLED' then status
+                            when paid_amount + :amount >= round(cast(final_amount as numeric), 2) then 'PAID'
+                            else 'PARTIALLY_PAID'
+                        end
+         where id = :invoiceId
+    """, nativeQuery = true)
+    int capturePayment(@Param("invoiceId") Long invoiceId, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query(value = """
+        update invoice
+           set pending_amount = greatest(pending_amount - :amount, 0)
+         where id = :invoiceId
+    """, nativeQuery = true)
+    int releasePayment(@Param("invoiceId") Long invoiceId, @Param("amount") BigDecimal amount);
+}
@@ -1,10 +1,20 @@
 package com.ece.dental_clinic.repository;
 
+import com.ece.dental_clinic.dto.PatientNameView;
 import com.ece.dental_clinic.entity.Patient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface PatientRepository extends JpaRepository<Patient, Long> {
     Optional<Patient> findByUserAccount_Email(String email);
+
+    @Query("select p.id from Patient p where p.userAccount.id = :userAccountId")
+    Optional<Long> findIdByUserAccountId(@Param("userAccountId") Long userAccountId);
+
+    @Query("select p.id as id, p.firstName as firstName, p.lastName as lastName from Patient p")
+    List<PatientNameView> findAllNames();
 }
\ No newline at end of file
@@ -1,11 +1,15 @@
 package com.ece.dental_clinic.repository;
 
+import com.ece.dental_clinic.dto.PendingPayment;
 import com.ece.dental_clinic.entity.Payment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
@@ -14,4 +18,27 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
     @Query("select coalesce(sum(p.amount), 0) from Payment p where p.invoice.id = :invoiceId and p.paymentStatus = 'SUCCESS'")
     BigDecimal sumByInvoiceId(@Param("invoiceId") Long invoiceId);
-}
\ No newline at end of file
+
+    // Sadece PENDING -> SUCCESS/FAILED geçişi; aynı sonuç iki kez işlenirse 0 döner
+    @Modifying
+    @Query("""
+        update Payment p
+           set p.paymentStatus = :status,
+               p.transactionNo = :transactionNo
+         where p.id = :paymentId
+           and p.paymentStatus = 'PENDING'
+    """)
+    int completePending(@Param("paymentId") Long paymentId,
+                        @Param("status") String status,
+                        @Param("transactionNo") String transactionNo);
+
+    // Sonucu hiç yazılmamış eski kart ödemeleri (restart, kayıp görev)
+    @Query("""
+        select p.id as id, p.invoice.id as invoiceId, p.amount as amount
+          from Payment p
+         where p.paymentStatus = 'PENDING'
+           and p.paymentDatetime < :before
+         order by p.id
+    """)
+    List<PendingPayment> findStalePending(@Param("before") LocalDateTime before, Pageable pageable);
+}
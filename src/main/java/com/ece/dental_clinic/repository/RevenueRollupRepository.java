@@ -0,0 +1,106 @@
+package com.ece.dental_clinic.repository;
+
+import com.ece.dental_clinic.dto.RevenueRow;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+// revenue_daily (V7) okuma/yazma. Raporlar yalnızca bu tabloya bakar; payment taraması sadece rebuild'de yapılır.
+@Repository
+public class RevenueRollupRepository {
+
+    // Ödemenin gününe, hekimine ve yöntemine ait satıra eklenir; satır yoksa oluşturulur.
+    // Ödeme kaydıyla aynı transaction'da çağrılmalı; geri alınan ödeme özeti de değiştirmez.
+    private static final String ADD_PAYMENT = """
+            insert into revenue_daily (day, dentist_id, clinic_id, payment_method, amount, payment_count)
+            select cast(p.payment_datetime as date), a.dentist_id, a.clinic_id, p.payment_method, p.amount, 1
+            from payment p
+            join invoice i on i.id = p.invoice_id
+            join appointment a on a.id = i.appointment_id
+            where p.id = ?
+              and p.payment_status = 'SUCCESS'
+            on conflict (dentist_id, day, clinic_id, payment_method) do update
+                set amount = revenue_daily.amount + excluded.amount,
+                    payment_count = revenue_daily.payment_count + excluded.payment_count
+            """;
+
+    private static final String REBUILD_RANGE = """
+            insert into revenue_daily (day, dentist_id, clinic_id, payment_method, amount, payment_count)
+            select cast(p.payment_datetime as date), a.dentist_id, a.clinic_id, p.payment_method, sum(p.amount), count(*)
+            from payment p
+            join invoice i on i.id = p.invoice_id
+            join appointment a on a.id = i.appointment_id
+            where p.payment_status = 'SUCCESS'
+              and p.payment_datetime >= ?
+              and p.payment_datetime < ?
+            group by 1, 2, 3, 4
+            """;
+
+    // Yöntemler kolonlara açılır; dönem birimi date_trunc'a parametre olarak gider ('day' / 'month')
+    private static final String SELECT_COLUMNS = """
+            coalesce(sum(amount) filter (where payment_method = 'CASH'), 0) as cash,
+            coalesce(sum(amount) filter (where payment_method = 'CARD'), 0) as card,
+            sum(amount) as total,
+            sum(payment_count) as payments
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public RevenueRollupRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public void addPayment(Long paymentId) {
+        jdbc.update(ADD_PAYMENT, paymentId);
+    }
+
+    public LocalDate firstPaymentDay() {
+        return jdbc.queryForObject("select cast(min(payment_datetime) as date) from payment", LocalDate.class);
+    }
+
+    // Aralık [from, to]. Tablo kilitlenir: devam eden ödeme transaction'ları bitene kadar beklenir,
+    // yenileri rebuild commit edilene kadar bekler; böylece hiçbir ödeme iki kez sayılmaz ya da kaybolmaz.
+    // Raporlar (select) kilitten etkilenmez.
+    public int rebuild(LocalDate from, LocalDate to) {
+        jdbc.execute("lock table revenue_daily in exclusive mode");
+        jdbc.update("delete from revenue_daily where day between ? and ?", Date.valueOf(from), Date.valueOf(to));
+        return jdbc.update(REBUILD_RANGE, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+    }
+
+    public List<RevenueRow> dentistByPeriod(Long dentistId, String unit, LocalDate from, LocalDate to) {
+        return jdbc.query("select cast(date_trunc(?, cast(day as timestamp)) as date) as period, " + SELECT_COLUMNS + """
+                        from revenue_daily
+                        where dentist_id = ? and day between ? and ?
+                        group by 1
+                        order by 1
+                        """,
+                (rs, rowNum) -> new RevenueRow(
+                        rs.getObject("period", LocalDate.class).toString(),
+                        rs.getBigDecimal("cash"),
+                        rs.getBigDecimal("card"),
+                        rs.getBigDecimal("total"),
+                        rs.getLong("payments")),
+                unit, dentistId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    // Hekim adları çağıran tarafta (DentistDirectory cache'i) çözülür
+    public List<RevenueRow> clinicByDentist(Long clinicId, LocalDate from, LocalDate to, Function<Long, String> dentistName) {
+        return jdbc.query("select dentist_id, " + SELECT_COLUMNS + """
+                        from revenue_daily
+                        where clinic_id = ? and day between ? and ?
+                        group by dentist_id
+                        order by total desc
+                        """,
+                (rs, rowNum) -> new RevenueRow(
+                        dentistName.apply(rs.getLong("dentist_id")),
+                        rs.getBigDecimal("cash"),
+                        rs.getBigDecimal("card"),
+                        rs.getBigDecimal("total"),
+                        rs.getLong("payments")),
+                clinicId, Date.valueOf(from), Date.valueOf(to));
+    }
+}
@@ -0,0 +1,48 @@
+package com.ece.dental_clinic.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+// Opsiyonel filtreler için: sadece değeri gelen predicate SQL'e yazılır.
+// "(:x is null or ...)" kalıbı planı tüm kombinasyonlar için tek tipe zorlayıp index kullanımını engelliyordu.
+final class SqlQueryBuilder {
+
+    private final StringBuilder sql;
+    private final MapSqlParameterSource params = new MapSqlParameterSource();
+    private boolean hasWhere;
+
+    SqlQueryBuilder(String select) {
+        this.sql = new StringBuilder(select);
+    }
+
+    SqlQueryBuilder where(String predicate) {
+        sql.append(hasWhere ? "  and " : "where ").append(predicate).append('\n');
+        hasWhere = true;
+        return this;
+    }
+
+    SqlQueryBuilder where(String predicate, String name, Object value) {
+        if (value == null || (value instanceof String s && s.isBlank())) {
+            return this;
+        }
+        params.addValue(name, value);
+        return where(predicate);
+    }
+
+    SqlQueryBuilder param(String name, Object value) {
+        params.addValue(name, value);
+        return this;
+    }
+
+    SqlQueryBuilder append(String clause) {
+        sql.append(clause).append('\n');
+        return this;
+    }
+
+    String sql() {
+        return sql.toString();
+    }
+
+    MapSqlParameterSource params() {
+        return params;
+    }
+}
@@ -2,10 +2,15 @@ package com.ece.dental_clinic.repository;
 
 import com.ece.dental_clinic.entity.UserAccount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface UserAccountRepository extends JpaRepository<UserAccount, Long> {
 
     Optional<UserAccount> findByEmail(String email);
+
+    @Query(value = "select clinic_id from clinic_admin where user_account_id = :userAccountId", nativeQuery = true)
+    Optional<Long> findAdminClinicId(@Param("userAccountId") Long userAccountId);
 }
\ No newline at end of file
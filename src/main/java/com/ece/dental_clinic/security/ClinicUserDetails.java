@@ -2,6 +2,7 @@ package com.ece.dental_clinic.security;
 
 import com.ece.dental_clinic.entity.UserAccount;
 import com.ece.dental_clinic.enums.UserRole;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,14 +14,39 @@ public class ClinicUserDetails implements UserDetails {
 
     private final UserAccount user;
 
-    public ClinicUserDetails(UserAccount user) {
+    // Login sırasında bir kez çözülür; sorgular ve sahiplik kontrolleri e-posta yerine bu id'leri kullanır
+    private final Long patientId;
+    private final Long dentistId;
+    private final Long adminClinicId;
+
+    public ClinicUserDetails(UserAccount user, Long patientId, Long dentistId, Long adminClinicId) {
         this.user = user;
+        this.patientId = patientId;
+        this.dentistId = dentistId;
+        this.adminClinicId = adminClinicId;
+    }
+
+    public static ClinicUserDetails from(Authentication authentication) {
+        return (ClinicUserDetails) authentication.getPrincipal();
     }
 
     public UserAccount getUser() {
         return user;
     }
 
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    public Long getDentistId() {
+        return dentistId;
+    }
+
+    // Yalnızca ADMIN rolünde dolu
+    public Long getAdminClinicId() {
+        return adminClinicId;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         UserRole role = user.getRole();
@@ -1,6 +1,9 @@
 package com.ece.dental_clinic.security;
 
 import com.ece.dental_clinic.entity.UserAccount;
+import com.ece.dental_clinic.enums.UserRole;
+import com.ece.dental_clinic.repository.DentistRepository;
+import com.ece.dental_clinic.repository.PatientRepository;
 import com.ece.dental_clinic.repository.UserAccountRepository;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -11,9 +14,15 @@ import org.springframework.stereotype.Service;
 public class ClinicUserDetailsService implements UserDetailsService {
 
     private final UserAccountRepository userAccountRepository;
+    private final PatientRepository patientRepository;
+    private final DentistRepository dentistRepository;
 
-    public ClinicUserDetailsService(UserAccountRepository userAccountRepository) {
+    public ClinicUserDetailsService(UserAccountRepository userAccountRepository,
+                                    PatientRepository patientRepository,
+                                    DentistRepository dentistRepository) {
         this.userAccountRepository = userAccountRepository;
+        this.patientRepository = patientRepository;
+        this.dentistRepository = dentistRepository;
     }
 
     @Override
@@ -23,6 +32,17 @@ public class ClinicUserDetailsService implements UserDetailsService {
                 .findByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + username));
 
-        return new ClinicUserDetails(user);
+        Long patientId = null;
+        Long dentistId = null;
+        Long adminClinicId = null;
+        if (user.getRole() == UserRole.PATIENT) {
+            patientId = patientRepository.findIdByUserAccountId(user.getId()).orElse(null);
+        } else if (user.getRole() == UserRole.DENTIST) {
+            dentistId = dentistRepository.findIdByUserAccountId(user.getId()).orElse(null);
+        } else if (user.getRole() == UserRole.ADMIN) {
+            adminClinicId = userAccountRepository.findAdminClinicId(user.getId()).orElse(null);
+        }
+
+        return new ClinicUserDetails(user, patientId, dentistId, adminClinicId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.ece.dental_clinic.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Dış bir transaction içinde çağrıldıysak iş commit sonrasına bırakılır, yoksa hemen çalışır.
+// Bellek içi index güncellemeleri ve async gönderimler commit edilmemiş veriyi görmesin diye.
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,118 @@
+package com.ece.dental_clinic.service;
+
+import com.ece.dental_clinic.entity.Appointment;
+import com.ece.dental_clinic.entity.AppointmentTreatment;
+import com.ece.dental_clinic.entity.Clinic;
+import com.ece.dental_clinic.entity.Dentist;
+import com.ece.dental_clinic.entity.Patient;
+import com.ece.dental_clinic.entity.Treatment;
+import com.ece.dental_clinic.enums.AppointmentStatus;
+import com.ece.dental_clinic.repository.AppointmentRepository;
+import com.ece.dental_clinic.repository.AppointmentTreatmentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class AppointmentBookingService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentTreatmentRepository appointmentTreatmentRepository;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final AppointmentStatusCounters statusCounters;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Aynı doktor + gün için rezervasyonlar sıraya girer, diğerleri paralel ilerler
+    private final ReentrantLock[] stripes;
+
+    public AppointmentBookingService(
+            AppointmentRepository appointmentRepository,
+            AppointmentTreatmentRepository appointmentTreatmentRepository,
+            SlotAvailabilityIndex slotAvailabilityIndex,
+            AppointmentStatusCounters statusCounters,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${clinic.booking.lock-stripes:64}") int lockStripes
+    ) {
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentTreatmentRepository = appointmentTreatmentRepository;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.statusCounters = statusCounters;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.stripes = new ReentrantLock[Math.max(lockStripes, 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Appointment book(Patient patient, Dentist dentist, Clinic clinic, Treatment treatment, LocalDateTime start) {
+        Long dentistId = dentist.getId();
+        LocalDate day = start.toLocalDate();
+        int durationMinutes = SlotAvailabilityIndex.durationOf(treatment.getDefaultDurationMinutes());
+
+        ReentrantLock lock = stripeFor(dentistId, day);
+        lock.lock();
+        try {
+            // Hızlı ret: DB'ye gitmeden index üzerinden
+            if (slotAvailabilityIndex.hasConflict(dentistId, start, durationMinutes)) {
+                throw new RuntimeException("Bu doktorun bu tarih/saat için zaten randevusu var.");
+            }
+
+            Appointment saved = transactionTemplate.execute(status -> {
+                // Çoklu instance için DB seviyesinde koruma: transaction sonuna kadar doktor + gün kilidi
+                jdbcTemplate.query("select pg_advisory_xact_lock(?, ?)", rs -> {
+                }, dentistId.intValue(), (int) day.toEpochDay());
+
+                if (slotAvailabilityIndex.hasConflictInDb(dentistId, start, durationMinutes)) {
+                    throw new RuntimeException("Bu doktorun bu tarih/saat için zaten randevusu var.");
+                }
+
+                return insert(patient, dentist, clinic, treatment, start);
+            });
+
+            AfterCommit.run(() -> slotAvailabilityIndex.markBooked(dentistId, start, durationMinutes));
+            statusCounters.added(dentistId, start, AppointmentStatus.SCHEDULED);
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Appointment insert(Patient patient, Dentist dentist, Clinic clinic, Treatment treatment, LocalDateTime start) {
+        Appointment a = new Appointment();
+        a.setPatient(patient);
+        a.setDentist(dentist);
+        a.setClinic(clinic);
+        a.setAppointmentDatetime(start);
+        a.setStatus(AppointmentStatus.SCHEDULED);
+        appointmentRepository.save(a);
+
+        double unitPrice = (treatment.getDefaultPrice() != null) ? treatment.getDefaultPrice() : 0.0;
+        int qty = 1;
+        double totalPrice = unitPrice * qty;
+
+        AppointmentTreatment at = new AppointmentTreatment();
+        at.setAppointment(a);
+        at.setTreatment(treatment);
+        at.setQuantity(qty);
+        at.setUnitPrice(unitPrice);
+        at.setTotalPrice(totalPrice);
+        appointmentTreatmentRepository.save(at);
+
+        return a;
+    }
+
+    private ReentrantLock stripeFor(Long dentistId, LocalDate day) {
+        int hash = 31 * Long.hashCode(dentistId) + Long.hashCode(day.toEpochDay());
+        return stripes[Math.floorMod(hash, stripes.length)];
+    }
+}
@@ -0,0 +1,98 @@
+package com.ece.dental_clinic.service;
+
+import com.ece.dental_clinic.dto.ExpirableAppointment;
+import com.ece.dental_clinic.enums.AppointmentStatus;
+import com.ece.dental_clinic.repository.AppointmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class AppointmentExpiryService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentStatusCounters statusCounters;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    private final Counter expiredCounter;
+    private final AtomicLong lastRunExpired = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public AppointmentExpiryService(
+            AppointmentRepository appointmentRepository,
+            AppointmentStatusCounters statusCounters,
+            MeterRegistry meterRegistry,
+            @Value("${clinic.expiry.batch-size:500}") int batchSize,
+            @Value("${clinic.expiry.max-batches-per-run:50}") int maxBatchesPerRun
+    ) {
+        this.appointmentRepository = appointmentRepository;
+        this.statusCounters = statusCounters;
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxBatchesPerRun = Math.max(maxBatchesPerRun, 1);
+
+        this.expiredCounter = Counter.builder("clinic.appointments.expired")
+                .description("Expiry job tarafından EXPIRED yapılan randevu sayısı")
+                .register(meterRegistry);
+        Gauge.builder("clinic.appointments.expiry.last_run", lastRunExpired, AtomicLong::get)
+                .description("Son çalışmada EXPIRED yapılan randevu sayısı")
+                .register(meterRegistry);
+        Gauge.builder("clinic.appointments.expiry.lag_seconds", lagSeconds, AtomicLong::get)
+                .description("Henüz EXPIRED yapılmamış en eski geçmiş randevunun yaşı (saniye)")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${clinic.expiry.initial-delay-ms:10000}",
+            fixedDelayString = "${clinic.expiry.fixed-delay-ms:60000}"
+    )
+    public void expireDueAppointments() {
+        LocalDateTime now = LocalDateTime.now();
+        List<AppointmentStatus> finalStatuses = AppointmentStatus.FINAL_STATUSES;
+
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            // Her parti kendi kısa transaction'ında çalışır, satır kilitleri uzun tutulmaz
+            List<ExpirableAppointment> due = appointmentRepository.findExpirable(now, finalStatuses, PageRequest.of(0, batchSize));
+            if (due.isEmpty()) {
+                break;
+            }
+            List<Long> ids = due.stream().map(ExpirableAppointment::getId).toList();
+
+            int updated = appointmentRepository.expireByIds(ids, AppointmentStatus.EXPIRED, finalStatuses);
+            total += updated;
+            expiredCounter.increment(updated);
+
+            // Arada durumu değişen satır güncellenmemiş olabilir; o fark uzlaştırmada düzelir
+            for (ExpirableAppointment a : due) {
+                statusCounters.changed(a.getDentistId(), a.getAppointmentDatetime(), a.getStatus(), AppointmentStatus.EXPIRED);
+            }
+
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+
+        lastRunExpired.set(total);
+
+        LocalDateTime oldest = appointmentRepository.findOldestExpirableDatetime(now, finalStatuses);
+        lagSeconds.set(oldest == null ? 0 : Duration.between(oldest, now).getSeconds());
+    }
+
+    public long getLastRunExpired() {
+        return lastRunExpired.get();
+    }
+
+    public long getLagSeconds() {
+        return lagSeconds.get();
+    }
+}
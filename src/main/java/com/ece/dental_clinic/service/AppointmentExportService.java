@@ -0,0 +1,123 @@
+package com.ece.dental_clinic.service;
+
+import com.ece.dental_clinic.repository.AppointmentExportRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+// Hekimin tüm randevu geçmişini CSV olarak yazar. Satırlar cursor'dan okundukça çıktıya gider;
+// bellekte satır listesi ya da entity tutulmaz, export boyutundan bağımsız olarak sabit bellek kullanır.
+@Service
+public class AppointmentExportService {
+
+    private static final String HEADER = "appointment_id,appointment_datetime,status,archived,patient_email,patient_name,"
+            + "treatments,treatment_total,invoice_id,invoice_status,invoice_final_amount,invoice_paid_amount";
+
+    private final AppointmentExportRepository exportRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final Counter exportedRows;
+
+    public AppointmentExportService(AppointmentExportRepository exportRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this.exportRepository = exportRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.exportedRows = Counter.builder("clinic.export.rows")
+                .tag("kind", "dentist_history")
+                .register(meterRegistry);
+    }
+
+    public long writeDentistHistory(Long dentistId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        // BOM: Excel dosyayı UTF-8 olarak açsın (Türkçe karakterler)
+        writer.write('\uFEFF');
+        writer.write(HEADER);
+        writer.write('\n');
+
+        long[] rows = {0};
+        try {
+            // Transaction cursor'ın açık kalması için; istemci bağlantıyı keserse yazma hatası sorguyu da sonlandırır
+            readOnlyTx.executeWithoutResult(status -> exportRepository.streamDentistHistory(dentistId, rs -> {
+                try {
+                    writeRow(writer, rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            exportedRows.increment(rows[0]);
+        }
+
+        writer.flush();
+        return rows[0];
+    }
+
+    private static void writeRow(Writer w, ResultSet rs) throws SQLException, IOException {
+        w.write(rs.getString("id"));
+        w.write(',');
+        w.write(String.valueOf(rs.getObject("appointment_datetime", LocalDateTime.class)));
+        w.write(',');
+        w.write(rs.getString("status"));
+        w.write(',');
+        w.write(rs.getObject("archived_at") != null ? "true" : "false");
+        w.write(',');
+        text(w, rs.getString("patient_email"));
+        w.write(',');
+        text(w, rs.getString("patient_name"));
+        w.write(',');
+        text(w, rs.getString("treatment_names"));
+        w.write(',');
+        plain(w, rs.getString("treatment_total"));
+        w.write(',');
+        plain(w, rs.getString("invoice_id"));
+        w.write(',');
+        plain(w, rs.getString("invoice_status"));
+        w.write(',');
+        plain(w, rs.getString("invoice_final_amount"));
+        w.write(',');
+        plain(w, rs.getString("invoice_paid_amount"));
+        w.write('\n');
+    }
+
+    private static void plain(Writer w, String v) throws IOException {
+        if (v != null) {
+            w.write(v);
+        }
+    }
+
+    // Ayraç/tırnak/satır sonu içeren alan tırnaklanır. = + - @ ile başlayan alan Excel'de formül olarak
+    // çalışmasın diye başına ' eklenir (isimler hasta tarafından girilir).
+    private static void text(Writer w, String v) throws IOException {
+        if (v == null || v.isEmpty()) {
+            return;
+        }
+        char first = v.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@') {
+            v = "'" + v;
+        }
+        if (v.indexOf(',') < 0 && v.indexOf('"') < 0 && v.indexOf('\n') < 0 && v.indexOf('\r') < 0) {
+            w.write(v);
+            return;
+        }
+        w.write('"');
+        w.write(v.replace("\"", "\"\""));
+        w.write('"');
+    }
+}
@@ -0,0 +1,139 @@
+package com.ece.dental_clinic.service;
+
+import com.ece.dental_clinic.dto.StatusBadges;
+import com.ece.dental_clinic.dto.StatusCount;
+import com.ece.dental_clinic.enums.AppointmentStatus;
+import com.ece.dental_clinic.repository.AppointmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Hekim başına durum sayaçları (panel rozetleri). Okuma DB'ye gitmez; her durum geçişi commit sonrası sayaca yansır.
+// Hekim ilk okunduğunda DB'den yüklenir ve periyodik olarak yeniden sayılır: aynı randevuya eşzamanlı iki geçiş
+// ya da yükleme sırasında gelen bir geçiş sayacı kaydırabilir, uzlaştırma bunu düzeltir.
+@Service
+public class AppointmentStatusCounters {
+
+    private static final int STATUSES = AppointmentStatus.values().length;
+
+    private final AppointmentRepository appointmentRepository;
+    private final ConcurrentMap<Long, Counts> counts = new ConcurrentHashMap<>();
+    private final Counter driftCounter;
+
+    public AppointmentStatusCounters(AppointmentRepository appointmentRepository, MeterRegistry meterRegistry) {
+        this.appointmentRepository = appointmentRepository;
+        this.driftCounter = Counter.builder("clinic.status_counters.drift")
+                .description("Uzlaştırmada düzeltilen toplam sayaç farkı")
+                .register(meterRegistry);
+    }
+
+    public StatusBadges badges(Long dentistId) {
+        Counts c = counts.get(dentistId);
+        // Gün değiştiyse "bugün" sayaçları eskidir; hekim yeniden yüklenir
+        if (c == null || !c.day.equals(LocalDate.now())) {
+            c = load(dentistId);
+            counts.put(dentistId, c);
+        }
+        return c.snapshot();
+    }
+
+    public void added(Long dentistId, LocalDateTime at, AppointmentStatus status) {
+        AfterCommit.run(() -> apply(dentistId, at, null, status));
+    }
+
+    public void changed(Long dentistId, LocalDateTime at, AppointmentStatus from, AppointmentStatus to) {
+        if (from != to) {
+            AfterCommit.run(() -> apply(dentistId, at, from, to));
+        }
+    }
+
+    // Arşivlenen randevu açık sayaçlardan düşer; bugünün sayaçlarında kalır
+    public void archived(Long dentistId, AppointmentStatus status) {
+        AfterCommit.run(() -> apply(dentistId, null, status, null));
+    }
+
+    @Scheduled(
+            initialDelayString = "${clinic.status-counters.reconcile-ms:600000}",
+            fixedDelayString = "${clinic.status-counters.reconcile-ms:600000}"
+    )
+    public void reconcile() {
+        for (Long dentistId : counts.keySet()) {
+            Counts fresh = load(dentistId);
+            Counts stale = counts.put(dentistId, fresh);
+            if (stale != null && stale.day.equals(fresh.day)) {
+                driftCounter.increment(stale.distance(fresh));
+            }
+        }
+    }
+
+    // Sayaç yüklenmemişse bir şey yapılmaz; ilk okumada zaten DB'den gelir
+    private void apply(Long dentistId, LocalDateTime at, AppointmentStatus from, AppointmentStatus to) {
+        Counts c = counts.get(dentistId);
+        if (c == null) {
+            return;
+        }
+        boolean today = at != null && at.toLocalDate().equals(c.day);
+        if (from != null) {
+            c.open.decrementAndGet(from.ordinal());
+            if (today) {
+                c.today.decrementAndGet(from.ordinal());
+            }
+        }
+        if (to != null) {
+            c.open.incrementAndGet(to.ordinal());
+            if (today) {
+                c.today.incrementAndGet(to.ordinal());
+            }
+        }
+    }
+
+    private Counts load(Long dentistId) {
+        LocalDate day = LocalDate.now();
+        Counts c = new Counts(day);
+        for (StatusCount row : appointmentRepository.countByStatus(
+                dentistId, day.atStartOfDay(), day.plusDays(1).atStartOfDay())) {
+            if (row.getStatus() != null) {
+                c.open.set(row.getStatus().ordinal(), row.getOpenCount() != null ? row.getOpenCount() : 0);
+                c.today.set(row.getStatus().ordinal(), row.getTodayCount() != null ? row.getTodayCount() : 0);
+            }
+        }
+        return c;
+    }
+
+    private static final class Counts {
+
+        private final LocalDate day;
+        private final AtomicLongArray open = new AtomicLongArray(STATUSES);
+        private final AtomicLongArray today = new AtomicLongArray(STATUSES);
+
+        Counts(LocalDate day) {
+            this.day = day;
+        }
+
+        // Geçiş sırasında geçici olarak negatife düşebilir; rozet sıfırın altını göstermez
+        StatusBadges snapshot() {
+            long[] o = new long[STATUSES];
+            long[] t = new long[STATUSES];
+            for (int i = 0; i < STATUSES; i++) {
+                o[i] = Math.max(open.get(i), 0);
+                t[i] = Math.max(today.get(i), 0);
+            }
+            return new StatusBadges(o, t);
+        }
+
+        long distance(Counts other) {
+            long d = 0;
+            for (int i = 0; i < STATUSES; i++) {
+                d += Math.abs(open.get(i) - other.open.get(i)) + Math.abs(today.get(i) - other.today.get(i));
+            }
+            return d;
+        }
+    }
+}
@@ -0,0 +1,647 @@
+package com.ece.dental_clinic.service;
+
+import com.ece.dental_clinic.dto.ImportReport;
+import com.ece.dental_clinic.entity.Treatment;
+import com.ece.dental_clinic.enums.AppointmentStatus;
+import com.ece.dental_clinic.enums.ImportKind;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+// Hasta / hekim / randevu listelerinin CSV'den toplu aktarımı.
+// Dosya satır satır okunur, her satır hemen doğrulanır ve partiler halinde JDBC batch ile yazılır; bellekte en fazla bir parti durur.
+// Id'ler sequence'tan 50'lik bloklar halinde önceden alınır (V6), böylece hesap -> hasta bağlantısı için satır başına RETURNING gerekmez.
+// Her parti kendi transaction'ında; parti hata verirse satırlar tek tek yazılır ve yalnızca bozuk satırlar raporlanır.
+// Yalnızca klinik yöneticisi çalıştırır: hekimler yöneticinin kliniğine yazılır, randevular yalnızca o kliniğin hekimlerine açılır.
+@Service
+public class BulkImportService {
+
+    // V6 migration'ındaki "increment by 50" ile aynı
+    private static final int ID_BLOCK = 50;
+
+    // BCrypt ile hiçbir zaman eşleşmez. Dosyadan şifre kabul edilmez; aktarılan hesap pasif ve şifresiz açılır,
+    // etkinleştirilip şifre belirlenene kadar giriş yapamaz.
+    private static final String NO_PASSWORD = "!";
+
+    private static final String INSERT_USER = """
+            insert into user_account (id, email, password_hash, role, is_active, created_at)
+            values (?, ?, ?, ?, false, ?)
+            on conflict (email) do nothing
+            """;
+
+    private static final String INSERT_PATIENT = """
+            insert into patient (id, user_account_id, first_name, last_name, phone, address, birth_date)
+            values (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_DENTIST = """
+            insert into dentist (id, user_account_id, clinic_id, first_name, last_name, specialty, phone)
+            values (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // Tamamlanmış geçmiş randevu billing_exempt: ödemesi klinik dışında kapanmıştır, gün sonu işi fatura kesmez
+    private static final String INSERT_APPOINTMENT = """
+            insert into appointment (id, patient_id, dentist_id, clinic_id, appointment_datetime, status, notes, created_at,
+                                     billing_exempt)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_APPOINTMENT_TREATMENT = """
+            insert into appointment_treatment (id, appointment_id, treatment_id, quantity, unit_price, total_price)
+            values (?, ?, ?, 1, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final PatientNameIndex patientNameIndex;
+    private final DentistDirectory dentistDirectory;
+    private final TreatmentCatalog treatmentCatalog;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final AppointmentStatusCounters statusCounters;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int maxErrors;
+
+    public BulkImportService(
+            JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedJdbc,
+            PlatformTransactionManager transactionManager,
+            PatientNameIndex patientNameIndex,
+            DentistDirectory dentistDirectory,
+            TreatmentCatalog treatmentCatalog,
+            SlotAvailabilityIndex slotAvailabilityIndex,
+            AppointmentStatusCounters statusCounters,
+            MeterRegistry meterRegistry,
+            @Value("${clinic.import.batch-size:500}") int batchSize,
+            @Value("${clinic.import.max-errors:1000}") int maxErrors
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbc = namedJdbc;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.patientNameIndex = patientNameIndex;
+        this.dentistDirectory = dentistDirectory;
+        this.treatmentCatalog = treatmentCatalog;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.statusCounters = statusCounters;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxErrors = Math.max(maxErrors, 0);
+    }
+
+    public ImportReport importCsv(ImportKind kind, Long clinicId, InputStream in) throws IOException {
+        long started = System.nanoTime();
+        Progress progress = new Progress();
+
+        try (CsvReader csv = new CsvReader(in)) {
+            csv.require(kind.getRequiredColumns());
+
+            List<Row> batch = new ArrayList<>(batchSize);
+            while (true) {
+                List<String> cells;
+                try {
+                    cells = csv.next();
+                } catch (IllegalArgumentException e) {
+                    progress.total++;
+                    progress.fail(csv.lineNumber(), e.getMessage());
+                    continue;
+                }
+                if (cells == null) {
+                    break;
+                }
+                progress.total++;
+
+                try {
+                    batch.add(parse(kind, csv, cells));
+                } catch (RowException e) {
+                    progress.fail(csv.lineNumber(), e.getMessage());
+                }
+                if (batch.size() == batchSize) {
+                    flush(kind, clinicId, batch, progress);
+                    batch.clear();
+                }
+            }
+            flush(kind, clinicId, batch, progress);
+        }
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        String tag = kind.name().toLowerCase(Locale.ROOT);
+        Counter.builder("clinic.import.rows").tag("kind", tag).tag("outcome", "imported")
+                .register(meterRegistry).increment(progress.imported);
+        Counter.builder("clinic.import.rows").tag("kind", tag).tag("outcome", "failed")
+                .register(meterRegistry).increment(progress.failed);
+
+        return new ImportReport(kind, progress.total, progress.imported, progress.failed, elapsedMillis, progress.errors);
+    }
+
+    private void flush(ImportKind kind, Long clinicId, List<Row> batch, Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            progress.apply(transactionTemplate.execute(status -> write(kind, clinicId, batch)));
+        } catch (DataAccessException e) {
+            // Partide DB'nin reddettiği bir satır var: satırlar tek tek denenir, sadece bozuk olanlar raporlanır
+            for (Row row : batch) {
+                try {
+                    progress.apply(transactionTemplate.execute(status -> write(kind, clinicId, List.of(row))));
+                } catch (DataAccessException rowError) {
+                    progress.fail(row.line(), "Kaydedilemedi: " + rootMessage(rowError));
+                }
+            }
+        }
+    }
+
+    private BatchResult write(ImportKind kind, Long clinicId, List<Row> rows) {
+        return switch (kind) {
+            case PATIENT -> writePatients(rows);
+            case DENTIST -> writeDentists(rows, clinicId);
+            case APPOINTMENT -> writeAppointments(rows, clinicId);
+        };
+    }
+
+    private BatchResult writePatients(List<Row> rows) {
+        BatchResult result = new BatchResult();
+        List<PersonRow> people = cast(rows, PersonRow.class);
+        List<PersonRow> created = insertUsers(people, "PATIENT", result);
+
+        long[] ids = allocateIds("patient_id_seq", created.size());
+        batch(INSERT_PATIENT, created, (ps, i, p) -> {
+            ps.setLong(1, ids[i]);
+            ps.setLong(2, p.userId);
+            ps.setString(3, p.firstName);
+            ps.setString(4, p.lastName);
+            ps.setString(5, p.phone);
+            ps.setString(6, p.address);
+            ps.setObject(7, p.birthDate, Types.DATE);
+        });
+        result.imported += created.size();
+
+        // JDBC ile yazıldığı için entity listener çalışmaz; ad index'i elle güncellenir (upsert commit sonrasına ertelenir)
+        for (int i = 0; i < created.size(); i++) {
+            patientNameIndex.upsert(ids[i], created.get(i).firstName, created.get(i).lastName);
+        }
+        return result;
+    }
+
+    private BatchResult writeDentists(List<Row> rows, Long clinicId) {
+        BatchResult result = new BatchResult();
+        List<PersonRow> people = cast(rows, PersonRow.class);
+
+        List<PersonRow> created = insertUsers(people, "DENTIST", result);
+        long[] ids = allocateIds("dentist_id_seq", created.size());
+        batch(INSERT_DENTIST, created, (ps, i, p) -> {
+            ps.setLong(1, ids[i]);
+            ps.setLong(2, p.userId);
+            ps.setLong(3, clinicId);
+            ps.setString(4, p.firstName);
+            ps.setString(5, p.lastName);
+            ps.setString(6, p.specialty);
+            ps.setString(7, p.phone);
+        });
+        result.imported += created.size();
+
+        if (!created.isEmpty()) {
+            dentistDirectory.invalidate();
+        }
+        return result;
+    }
+
+    private BatchResult writeAppointments(List<Row> rows, Long clinicId) {
+        BatchResult result = new BatchResult();
+        List<AppointmentRow> appointments = cast(rows, AppointmentRow.class);
+
+        // E-postalar parti başına tek sorguyla id'ye çevrilir
+        Map<String, Long> patients = new HashMap<>();
+        namedJdbc.query("""
+                        select u.email, p.id from user_account u join patient p on p.user_account_id = u.id
+                        where u.email in (:emails)
+                        """,
+                Map.of("emails", distinct(appointments, a -> a.patientEmail)),
+                rs -> {
+                    patients.put(rs.getString(1), rs.getLong(2));
+                });
+        // Yalnızca yöneticinin kliniğindeki hekimler
+        Map<String, Long> dentists = new HashMap<>();
+        namedJdbc.query("""
+                        select u.email, d.id from user_account u join dentist d on d.user_account_id = u.id
+                        where u.email in (:emails)
+                          and d.clinic_id = :clinicId
+                        """,
+                Map.of("emails", distinct(appointments, a -> a.dentistEmail), "clinicId", clinicId),
+                rs -> {
+                    dentists.put(rs.getString(1), rs.getLong(2));
+                });
+
+        List<AppointmentRow> resolved = new ArrayList<>();
+        for (AppointmentRow a : appointments) {
+            Long patientId = patients.get(a.patientEmail);
+            Long dentistId = dentists.get(a.dentistEmail);
+            if (patientId == null) {
+                result.fail(a.line(), "Hasta bulunamadı: " + a.patientEmail);
+            } else if (dentistId == null) {
+                result.fail(a.line(), "Diş hekimi bu klinikte bulunamadı: " + a.dentistEmail);
+            } else {
+                a.patientId = patientId;
+                a.dentistId = dentistId;
+                a.clinicId = clinicId;
+                resolved.add(a);
+            }
+        }
+        List<AppointmentRow> valid = guardOpenSlots(resolved, result);
+
+        long[] ids = allocateIds("appointment_id_seq", valid.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        batch(INSERT_APPOINTMENT, valid, (ps, i, a) -> {
+            a.id = ids[i];
+            ps.setLong(1, ids[i]);
+            ps.setLong(2, a.patientId);
+            ps.setLong(3, a.dentistId);
+            ps.setLong(4, a.clinicId);
+            ps.setTimestamp(5, Timestamp.valueOf(a.datetime));
+            ps.setString(6, a.status.name());
+            ps.setString(7, a.notes);
+            ps.setTimestamp(8, now);
+            ps.setBoolean(9, a.status == AppointmentStatus.COMPLETED);
+        });
+
+        List<AppointmentRow> treated = valid.stream().filter(a -> a.treatment != null).toList();
+        long[] lineIds = allocateIds("appointment_treatment_id_seq", treated.size());
+        batch(INSERT_APPOINTMENT_TREATMENT, treated, (ps, i, a) -> {
+            double price = a.treatment.getDefaultPrice() != null ? a.treatment.getDefaultPrice() : 0.0;
+            ps.setLong(1, lineIds[i]);
+            ps.setLong(2, a.id);
+            ps.setLong(3, a.treatment.getId());
+            ps.setDouble(4, price);
+            ps.setDouble(5, price);
+        });
+        result.imported += valid.size();
+
+        // Açık randevular slot cache'ini eskitir; etkilenen günler bir sonraki okumada DB'den yüklenir
+        AfterCommit.run(() -> {
+            for (AppointmentRow a : valid) {
+                if (!a.status.isFinal()) {
+                    slotAvailabilityIndex.invalidate(a.dentistId, a.datetime.toLocalDate());
+                }
+            }
+        });
+        for (AppointmentRow a : valid) {
+            statusCounters.added(a.dentistId, a.datetime, a.status);
+        }
+        return result;
+    }
+
+    // Açık randevular rezervasyonla aynı korumadan geçer: hekim + gün advisory lock'u, DB'deki güncel gün ve
+    // dosyada daha önce kabul edilen satırlarla çakışma kontrolü. Kilitler sıralı alınır; iki aktarım birbirini kilitlemez.
+    // Önceki partiler commit edilmiş olduğundan DB kontrolüne girer; aynı partidekiler gün kopyasına eklenerek yakalanır.
+    private List<AppointmentRow> guardOpenSlots(List<AppointmentRow> rows, BatchResult result) {
+        TreeSet<SlotDay> days = new TreeSet<>();
+        for (AppointmentRow a : rows) {
+            if (!a.status.isFinal()) {
+                days.add(new SlotDay(a.dentistId, a.datetime.toLocalDate()));
+            }
+        }
+        if (days.isEmpty()) {
+            return rows;
+        }
+        for (SlotDay d : days) {
+            jdbcTemplate.query("select pg_advisory_xact_lock(?, ?)", rs -> {
+            }, (int) d.dentistId(), (int) d.date().toEpochDay());
+        }
+
+        Map<SlotDay, SlotAvailabilityIndex.DaySchedule> schedules = new HashMap<>();
+        List<AppointmentRow> accepted = new ArrayList<>(rows.size());
+        for (AppointmentRow a : rows) {
+            if (a.status.isFinal()) {
+                accepted.add(a);
+                continue;
+            }
+            SlotDay day = new SlotDay(a.dentistId, a.datetime.toLocalDate());
+            SlotAvailabilityIndex.DaySchedule schedule = schedules.computeIfAbsent(day,
+                    d -> slotAvailabilityIndex.dayFromDb(d.dentistId(), d.date()));
+            int from = SlotAvailabilityIndex.minuteOf(a.datetime);
+            int to = from + SlotAvailabilityIndex.durationOf(
+                    a.treatment != null ? a.treatment.getDefaultDurationMinutes() : null);
+            if (schedule.overlaps(from, to)) {
+                result.fail(a.line(), "Hekimin bu saatte başka randevusu var: " + a.dentistEmail + " " + a.datetime);
+                continue;
+            }
+            schedules.put(day, schedule.with(from, to));
+            accepted.add(a);
+        }
+        return accepted;
+    }
+
+    // Var olan e-posta "on conflict do nothing" ile atlanır ve satır hatası olarak raporlanır
+    private List<PersonRow> insertUsers(List<PersonRow> people, String role, BatchResult result) {
+        long[] ids = allocateIds("user_account_id_seq", people.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] counts = batch(INSERT_USER, people, (ps, i, p) -> {
+            p.userId = ids[i];
+            ps.setLong(1, ids[i]);
+            ps.setString(2, p.email);
+            ps.setString(3, NO_PASSWORD);
+            ps.setString(4, role);
+            ps.setTimestamp(5, now);
+        });
+
+        List<PersonRow> created = new ArrayList<>(people.size());
+        for (int i = 0; i < people.size(); i++) {
+            // Sürücü satır sayısını bildiremezse SUCCESS_NO_INFO (-2) döner; eklenmiş kabul edilir
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                created.add(people.get(i));
+            } else {
+                result.fail(people.get(i).line(), "E-posta zaten kayıtlı: " + people.get(i).email);
+            }
+        }
+        return created;
+    }
+
+    // nextval bloğun üst sınırını verir; blok [üst - 49, üst]
+    private long[] allocateIds(String sequence, int count) {
+        if (count == 0) {
+            return new long[0];
+        }
+        int blocks = (count + ID_BLOCK - 1) / ID_BLOCK;
+        List<Long> tops = jdbcTemplate.queryForList(
+                "select nextval(?::regclass) from generate_series(1, ?)", Long.class, sequence, blocks);
+
+        long[] ids = new long[count];
+        int n = 0;
+        for (long top : tops) {
+            for (long id = top - ID_BLOCK + 1; id <= top && n < count; id++) {
+                ids[n++] = id;
+            }
+        }
+        return ids;
+    }
+
+    private <T> int[] batch(String sql, List<T> items, RowBinder<T> binder) {
+        if (items.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                binder.bind(ps, i, items.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return items.size();
+            }
+        });
+    }
+
+    private Row parse(ImportKind kind, CsvReader csv, List<String> cells) {
+        long line = csv.lineNumber();
+        if (kind == ImportKind.APPOINTMENT) {
+            AppointmentRow a = new AppointmentRow(line);
+            a.patientEmail = email(csv.get(cells, "patient_email"), "patient_email");
+            a.dentistEmail = email(csv.get(cells, "dentist_email"), "dentist_email");
+            a.datetime = dateTime(csv.get(cells, "appointment_datetime"));
+            a.status = status(csv.get(cells, "status"), a.datetime);
+            a.notes = csv.get(cells, "notes");
+
+            Long treatmentId = number(csv.get(cells, "treatment_id"), "treatment_id");
+            if (treatmentId != null) {
+                Optional<Treatment> t = treatmentCatalog.findById(treatmentId);
+                a.treatment = t.orElseThrow(() -> new RowException("İşlem bulunamadı: " + treatmentId));
+            }
+            return a;
+        }
+
+        PersonRow p = new PersonRow(line);
+        p.email = email(csv.get(cells, "email"), "email");
+        p.firstName = name(csv.get(cells, "first_name"), "first_name");
+        p.lastName = name(csv.get(cells, "last_name"), "last_name");
+        p.phone = limit(csv.get(cells, "phone"), 30, "phone");
+
+        if (kind == ImportKind.PATIENT) {
+            p.address = limit(csv.get(cells, "address"), 500, "address");
+            p.birthDate = date(csv.get(cells, "birth_date"));
+        } else {
+            p.specialty = limit(csv.get(cells, "specialty"), 150, "specialty");
+        }
+        return p;
+    }
+
+    private static String email(String v, String column) {
+        if (v == null) {
+            throw new RowException(column + " zorunlu.");
+        }
+        if (v.length() > 255 || v.indexOf('@') <= 0 || v.indexOf('@') == v.length() - 1) {
+            throw new RowException("Geçersiz e-posta: " + v);
+        }
+        return v;
+    }
+
+    private static String name(String v, String column) {
+        if (v == null) {
+            throw new RowException(column + " zorunlu.");
+        }
+        return limit(v, 100, column);
+    }
+
+    private static String limit(String v, int max, String column) {
+        if (v != null && v.length() > max) {
+            throw new RowException(column + " en fazla " + max + " karakter olabilir.");
+        }
+        return v;
+    }
+
+    private static Long number(String v, String column) {
+        if (v == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(v);
+        } catch (NumberFormatException e) {
+            throw new RowException(column + " sayı olmalı: " + v);
+        }
+    }
+
+    private static LocalDate date(String v) {
+        if (v == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(v);
+        } catch (DateTimeParseException e) {
+            throw new RowException("birth_date YYYY-MM-DD olmalı: " + v);
+        }
+    }
+
+    private static LocalDateTime dateTime(String v) {
+        if (v == null) {
+            throw new RowException("appointment_datetime zorunlu.");
+        }
+        try {
+            return LocalDateTime.parse(v.replace(' ', 'T'));
+        } catch (DateTimeParseException e) {
+            throw new RowException("appointment_datetime YYYY-MM-DDTHH:MM olmalı: " + v);
+        }
+    }
+
+    // Durum verilmemişse geçmiş randevu tamamlanmış, gelecektekiler planlı sayılır
+    private static AppointmentStatus status(String v, LocalDateTime at) {
+        if (v == null) {
+            return at.isBefore(LocalDateTime.now()) ? AppointmentStatus.COMPLETED : AppointmentStatus.SCHEDULED;
+        }
+        try {
+            return AppointmentStatus.valueOf(v.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RowException("Geçersiz durum: " + v);
+        }
+    }
+
+    private static <T> Collection<Object> distinct(List<T> rows, Function<T, Object> key) {
+        Set<Object> keys = new HashSet<>();
+        for (T row : rows) {
+            keys.add(key.apply(row));
+        }
+        return keys;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Row> List<T> cast(List<Row> rows, Class<T> type) {
+        return (List<T>) (List<?>) rows;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable t = e;
+        while (t.getCause() != null) {
+            t = t.getCause();
+        }
+        String message = t.getMessage();
+        return message == null ? t.getClass().getSimpleName() : message.lines().findFirst().orElse(message);
+    }
+
+    @FunctionalInterface
+    private interface RowBinder<T> {
+        void bind(PreparedStatement ps, int index, T item) throws SQLException;
+    }
+
+    private record SlotDay(long dentistId, LocalDate date) implements Comparable<SlotDay> {
+
+        @Override
+        public int compareTo(SlotDay o) {
+            int c = Long.compare(dentistId, o.dentistId);
+            return c != 0 ? c : date.compareTo(o.date);
+        }
+    }
+
+    private abstract static class Row {
+
+        private final long line;
+
+        Row(long line) {
+            this.line = line;
+        }
+
+        long line() {
+            return line;
+        }
+    }
+
+    private static final class PersonRow extends Row {
+        String email;
+        String firstName;
+        String lastName;
+        String phone;
+        String address;
+        LocalDate birthDate;
+        String specialty;
+        long userId;
+
+        PersonRow(long line) {
+            super(line);
+        }
+    }
+
+    private static final class AppointmentRow extends Row {
+        String patientEmail;
+        String dentistEmail;
+        LocalDateTime datetime;
+        AppointmentStatus status;
+        String notes;
+        Treatment treatment;
+        long id;
+        long patientId;
+        long dentistId;
+        long clinicId;
+
+        AppointmentRow(long line) {
+            super(line);
+        }
+    }
+
+    // Parti transaction'ı commit edilmeden sonuç Progress'e yazılmaz; geri alınan partide tekrar sayılmaz
+    private static final class BatchResult {
+        long imported;
+        final List<ImportReport.RowError> errors = new ArrayList<>();
+
+        void fail(long line, String message) {
+            errors.add(new ImportReport.RowError(line, message));
+        }
+    }
+
+    private final class Progress {
+        long total;
+        long imported;
+        long failed;
+        final List<ImportReport.RowError> errors = new ArrayList<>();
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportReport.RowError(line, message));
+            }
+        }
+
+        void apply(BatchResult result) {
+            if (result == null) {
+                return;
+            }
+            imported += result.imported;
+            for (ImportReport.RowError e : result.errors) {
+                fail(e.getLine(), e.getMessage());
+            }
+        }
+    }
+
+    private static final class RowException extends RuntimeException {
+        RowException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.ece.dental_clinic.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Satır satır okuyan basit CSV okuyucu; dosya hiçbir zaman belleğe alınmaz.
+// Ayraç başlıktan çıkarılır (Excel'in Türkçe çıktısı ';' kullanır). Tırnaklı alan desteklenir, çok satırlı alan desteklenmez.
+final class CsvReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final char separator;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long lineNumber;
+
+    CsvReader(InputStream in) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        String header = reader.readLine();
+        lineNumber = 1;
+        if (header == null || header.isBlank()) {
+            throw new RuntimeException("Dosya boş veya başlık satırı yok.");
+        }
+        if (header.charAt(0) == '\uFEFF') {
+            header = header.substring(1);
+        }
+        this.separator = header.indexOf(';') >= 0 && header.indexOf(',') < 0 ? ';' : ',';
+
+        List<String> names = split(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+    }
+
+    void require(List<String> required) {
+        List<String> missing = required.stream().filter(c -> !columns.containsKey(c)).toList();
+        if (!missing.isEmpty()) {
+            throw new RuntimeException("Eksik kolon: " + String.join(", ", missing));
+        }
+    }
+
+    // Boş satırlar atlanır; dosya sonunda null
+    List<String> next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+        return split(line);
+    }
+
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    // Kolon yoksa veya hücre boşsa null
+    String get(List<String> row, String column) {
+        Integer i = columns.get(column);
+        if (i == null || i >= row.size()) {
+            return null;
+        }
+        String v = row.get(i).trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    private List<String> split(String line) {
+        List<String> out = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        cur.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    cur.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == separator) {
+                out.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Kapanmamış tırnak (çok satırlı alan desteklenmiyor).");
+        }
+        out.add(cur.toString());
+        return out;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
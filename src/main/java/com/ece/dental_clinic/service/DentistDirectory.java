@@ -0,0 +1,98 @@
+package com.ece.dental_clinic.service;
+
+import com.ece.dental_clinic.dto.DentistSummary;
+import com.ece.dental_clinic.repository.DentistRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class DentistDirectory {
+
+    private final DentistRepository dentistRepository;
+    private final long ttlNanos;
+
+    private volatile Snapshot snapshot;
+    // synchronized yerine: reload DB beklerken virtual thread carrier'ı pinlemesin
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    // Her invalidate'te artar; yükleme sırasında değiştiyse okunan veri eski olabilir, cache'e yazılmaz
+    private final AtomicLong generation = new AtomicLong();
+
+    public DentistDirectory(
+            DentistRepository dentistRepository,
+            @Value("${clinic.dentists.cache-ttl-seconds:600}") long ttlSeconds
+    ) {
+        this.dentistRepository = dentistRepository;
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+    }
+
+    public List<DentistSummary> findAll() {
+        return current().all;
+    }
+
+    public List<DentistSummary> findByClinic(Long clinicId) {
+        return current().byClinic.getOrDefault(clinicId, List.of());
+    }
+
+    public Optional<DentistSummary> findById(Long id) {
+        return Optional.ofNullable(current().byId.get(id));
+    }
+
+    // Transaction içinde çağrılırsa commit sonrasına bırakılır (TreatmentCatalog ile aynı)
+    public void invalidate() {
+        AfterCommit.run(() -> {
+            generation.incrementAndGet();
+            snapshot = null;
+        });
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s != null && System.nanoTime() - s.loadedAt < ttlNanos) {
+            return s;
+        }
+        return reload();
+    }
+
+    private Snapshot reload() {
+        reloadLock.lock();
+        try {
+            Snapshot s = snapshot;
+            if (s != null && System.nanoTime() - s.loadedAt < ttlNanos) {
+                return s;
+            }
+
+            long gen = generation.get();
+            List<DentistSummary> all = List.copyOf(dentistRepository.findAllSummaries());
+            Map<Long, DentistSummary> byId = new HashMap<>();
+            Map<Long, List<DentistSummary>> byClinic = new HashMap<>();
+            for (DentistSummary d : all) {
+                byId.put(d.getId(), d);
+                byClinic.computeIfAbsent(d.getClinicId(), k -> new ArrayList<>()).add(d);
+            }
+            byClinic.replaceAll((k, v) -> List.copyOf(v));
+
+            s = new Snapshot(all, Map.copyOf(byId), Map.copyOf(byClinic), System.nanoTime());
+            if (generation.get() == gen) {
+                snapshot = s;
+            }
+            return s;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private record Snapshot(List<DentistSummary> all,
+                            Map<Long, DentistSummary> byId,
+                            Map<Long, List<DentistSummary>> byClinic,
+                            long loadedAt) {
+    }
+}
@@ -0,0 +1,107 @@
+package com.ece.dental_clinic.service;
+
+import com.ece.dental_clinic.dto.AvailableSlot;
+import com.ece.dental_clinic.dto.DentistSummary;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class EarliestAvailabilityService {
+
+    private static final Comparator<AvailableSlot> EARLIEST_FIRST = Comparator
+            .comparing(AvailableSlot::getStart)
+            .thenComparing(AvailableSlot::getDentistId);
+
+    private final DentistDirectory dentistDirectory;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final ThreadPoolTaskExecutor executor;
+
+    public EarliestAvailabilityService(
+            DentistDirectory dentistDirectory,
+            SlotAvailabilityIndex slotAvailabilityIndex,
+            @Qualifier("availabilitySearchExecutor") ThreadPoolTaskExecutor executor
+    ) {
+        this.dentistDirectory = dentistDirectory;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.executor = executor;
+    }
+
+    public List<AvailableSlot> findEarliest(int slotMinutes, Long clinicId, LocalDate from, LocalDate to, int limit) {
+        List<DentistSummary> dentists = clinicId != null
+                ? dentistDirectory.findByClinic(clinicId)
+                : dentistDirectory.findAll();
+
+        LocalDateTime now = LocalDateTime.now();
+        BoundedSlotQueue best = new BoundedSlotQueue(limit);
+
+        // Her doktor ayrı görevde taranır; kuyruk dolunca daha geç günlere bakılmaz
+        List<CompletableFuture<Void>> scans = new ArrayList<>();
+        for (DentistSummary d : dentists) {
+            scans.add(CompletableFuture.runAsync(
+                    () -> scanDentist(d.getId(), d.getDisplayName(), slotMinutes, from, to, now, best),
+                    executor
+            ));
+        }
+        CompletableFuture.allOf(scans.toArray(new CompletableFuture[0])).join();
+
+        return best.sorted();
+    }
+
+    private void scanDentist(Long dentistId, String dentistName, int slotMinutes,
+                             LocalDate from, LocalDate to, LocalDateTime now, BoundedSlotQueue best) {
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (!best.couldAccept(date.atTime(SlotAvailabilityIndex.WORK_START))) {
+                return;
+            }
+            for (LocalDateTime start : slotAvailabilityIndex.freeSlots(dentistId, date, slotMinutes, now)) {
+                // Günün slotları sıralı; biri reddedilirse sonrakiler de reddedilir
+                if (!best.offer(new AvailableSlot(dentistId, dentistName, start))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class BoundedSlotQueue {
+
+        private final int capacity;
+        private final PriorityQueue<AvailableSlot> latestFirst;
+
+        BoundedSlotQueue(int capacity) {
+            this.capacity = capacity;
+            this.latestFirst = new PriorityQueue<>(capacity, EARLIEST_FIRST.reversed());
+        }
+
+        synchronized boolean couldAccept(LocalDateTime start) {
+            return latestFirst.size() < capacity || latestFirst.peek().getStart().isAfter(start);
+        }
+
+        synchronized boolean offer(AvailableSlot slot) {
+            if (latestFirst.size() < capacity) {
+                latestFirst.add(slot);
+                return true;
+            }
+            if (EARLIEST_FIRST.compare(slot, latestFirst.peek()) >= 0) {
+                return false;
+            }
+            latestFirst.poll();
+            latestFirst.add(slot);
+            return true;
+        }
+
+        synchronized List<AvailableSlot> sorted() {
+            List<AvailableSlot> result = new ArrayList<>(latestFirst);
+            result.sort(EARLIEST_FIRST);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.ece.dental_clinic.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Çift tıklama / proxy tekrarı için: aynı anahtarla gelen POST ilk sonucu (redirect) döner, işlem tekrar çalışmaz.
+// Aynı instance'taki tekrarlar bellekten çözülür. İlk istekte DB'ye ayrıca sorulmaz; anahtar işlemin kendi
+// transaction'ının sonunda yazılır ve başka bir instance aynı anahtarı yazmışsa bu işlem geri alınıp onun sonucu döner.
+@Service
+public class IdempotencyService {
+
+    private static final String INSERT_KEY = """
+            insert into idempotency_key (idem_key, result, created_at)
+            values (?, ?, ?)
+            on conflict (idem_key) do nothing
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Duration ttl;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Eklenme sırası; kapasite aşılınca en eski anahtar düşürülür
+    private final Queue<String> order = new ConcurrentLinkedQueue<>();
+
+    public IdempotencyService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${clinic.idempotency.max-entries:100000}") int maxEntries,
+            @Value("${clinic.idempotency.ttl-minutes:60}") long ttlMinutes
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxEntries = Math.max(maxEntries, 1);
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    // key boşsa koruma yok, işlem doğrudan çalışır
+    public String execute(String scope, String key, Supplier<String> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        String k = scope + ":" + key.trim();
+
+        Entry existing = entries.get(k);
+        if (existing != null && !existing.isExpired(ttlNanos)) {
+            return await(existing);
+        }
+
+        Entry mine = new Entry();
+        existing = entries.putIfAbsent(k, mine);
+        if (existing != null) {
+            if (!existing.isExpired(ttlNanos)) {
+                return await(existing);
+            }
+            if (!entries.replace(k, existing, mine)) {
+                return execute(scope, key, action);
+            }
+        }
+        order.add(k);
+        trim();
+
+        try {
+            String result = transactionTemplate.execute(status -> {
+                String r = action.get();
+                int inserted = jdbcTemplate.update(INSERT_KEY, k, r, Timestamp.valueOf(LocalDateTime.now()));
+                if (inserted == 0) {
+                    // Başka bir instance aynı anahtarı işlemiş: bu işlemi geri al, onun sonucunu dön
+                    status.setRollbackOnly();
+                    return jdbcTemplate.queryForObject(
+                            "select result from idempotency_key where idem_key = ?", String.class, k);
+                }
+                return r;
+            });
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            // Hata sonucu saklanmaz; kullanıcı aynı formu tekrar gönderebilsin
+            entries.remove(k, mine);
+            mine.fail(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${clinic.idempotency.cleanup-ms:300000}")
+    public void evictExpired() {
+        entries.entrySet().removeIf(e -> e.getValue().isExpired(ttlNanos));
+        order.removeIf(k -> !entries.containsKey(k));
+        jdbcTemplate.update("delete from idempotency_key where created_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minus(ttl)));
+    }
+
+    private void trim() {
+        while (entries.size() > maxEntries) {
+            String oldest = order.poll();
+            if (oldest == null) {
+                return;
+            }
+            Entry e = entries.get(oldest);
+            // Devam eden işlem düşürülmez; bekleyen tekrarlar sonucunu almalı
+            if (e != null && e.future.isDone()) {
+                entries.remove(oldest, e);
+            }
+        }
+    }
+
+    private static String await(Entry entry) {
+        try {
+            return entry.future.get(30, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new RuntimeException("İşlem tamamlanamadı.", e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Aynı istek hâlâ işleniyor, lütfen bekleyin.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("İstek yarıda kesildi.");
+        }
+    }
+
+    private static final class Entry {
+
+        private final CompletableFuture<String> future = new CompletableFuture<>();
+        private volatile long completedAt;
+
+        void complete(String result) {
+            completedAt = System.nanoTime();
+            future.complete(result);
+        }
+
+        void fail(RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+
+        boolean isExpired(long ttlNanos) {
+            return future.isDone() && System.nanoTime() - completedAt > ttlNanos;
+        }
+    }
+}
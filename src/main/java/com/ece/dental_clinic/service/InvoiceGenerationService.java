@@ -0,0 +1,166 @@
+package com.ece.dental_clinic.service;
+
+import com.ece.dental_clinic.enums.InvoiceStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Fatura üretimi: appointment_treatment satırlarının toplamından invoice satırı oluşturur.
+// Tek randevu için (tamamlama anında) veya toplu olarak (gün sonu, faturası olmayan COMPLETED randevular) çalışır.
+@Service
+public class InvoiceGenerationService {
+
+    private static final String SELECT_PENDING = """
+            select a.id, coalesce(sum(at.total_price), 0) as total
+            from appointment a
+            left join appointment_treatment at on at.appointment_id = a.id
+            where a.status = 'COMPLETED'
+              and not a.billing_exempt
+              and a.id > ?
+              and not exists (select 1 from invoice i where i.appointment_id = a.id)
+            group by a.id
+            order by a.id
+            limit ?
+            """;
+
+    private static final String SELECT_ONE = """
+            select a.id, coalesce(sum(at.total_price), 0) as total
+            from appointment a
+            left join appointment_treatment at on at.appointment_id = a.id
+            where a.id = ?
+              and not a.billing_exempt
+              and not exists (select 1 from invoice i where i.appointment_id = a.id)
+            group by a.id
+            """;
+
+    // Tekillik ux_invoice_appointment ile sağlanır: "where not exists" eşzamanlı ve henüz commit edilmemiş
+    // bir insert'i göremez. Çakışan satır sessizce atlanır ve eklenen sayıya girmez.
+    private static final String INSERT_INVOICE = """
+            insert into invoice (appointment_id, total_amount, discount_amount, final_amount, status, due_date, created_at)
+            values (?, ?, ?, ?, ?, ?, ?)
+            on conflict (appointment_id) do nothing
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int dueDays;
+
+    private final Counter generatedCounter;
+    private final Timer generationTimer;
+    private final AtomicLong lastRunPerSecond = new AtomicLong();
+
+    public InvoiceGenerationService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${clinic.invoices.batch-size:1000}") int batchSize,
+            @Value("${clinic.invoices.due-days:30}") int dueDays
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(batchSize, 1);
+        this.dueDays = dueDays;
+
+        this.generatedCounter = Counter.builder("clinic.invoices.generated")
+                .description("Oluşturulan fatura sayısı")
+                .register(meterRegistry);
+        this.generationTimer = Timer.builder("clinic.invoices.generation")
+                .description("Toplu fatura üretim süresi")
+                .register(meterRegistry);
+        Gauge.builder("clinic.invoices.generation.last_run_per_second", lastRunPerSecond, AtomicLong::get)
+                .description("Son toplu çalışmadaki fatura/saniye")
+                .register(meterRegistry);
+    }
+
+    public boolean generateFor(Long appointmentId) {
+        List<PendingInvoice> pending = jdbcTemplate.query(SELECT_ONE,
+                (rs, rowNum) -> new PendingInvoice(rs.getLong("id"), rs.getDouble("total")),
+                appointmentId);
+        return insert(pending) > 0;
+    }
+
+    @Scheduled(cron = "${clinic.invoices.batch-cron:0 30 23 * * *}")
+    public int generatePending() {
+        long started = System.nanoTime();
+        int total = 0;
+        long afterId = 0;
+
+        while (true) {
+            List<PendingInvoice> pending = jdbcTemplate.query(SELECT_PENDING,
+                    (rs, rowNum) -> new PendingInvoice(rs.getLong("id"), rs.getDouble("total")),
+                    afterId, batchSize);
+            if (pending.isEmpty()) {
+                break;
+            }
+
+            total += insert(pending);
+            afterId = pending.get(pending.size() - 1).appointmentId();
+
+            if (pending.size() < batchSize) {
+                break;
+            }
+        }
+
+        long elapsed = System.nanoTime() - started;
+        generationTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        lastRunPerSecond.set(elapsed > 0 ? Math.round(total * 1_000_000_000.0 / elapsed) : 0);
+        return total;
+    }
+
+    public long getLastRunPerSecond() {
+        return lastRunPerSecond.get();
+    }
+
+    // Her parti tek transaction ve tek JDBC batch
+    private int insert(List<PendingInvoice> pending) {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate due = now.toLocalDate().plusDays(dueDays);
+
+        int[][] results = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(
+                INSERT_INVOICE, pending, pending.size(), (ps, p) -> {
+                    // İndirim kuralı yok; final = toplam
+                    ps.setLong(1, p.appointmentId());
+                    ps.setDouble(2, p.total());
+                    ps.setDouble(3, 0);
+                    ps.setDouble(4, p.total());
+                    ps.setString(5, InvoiceStatus.UNPAID.name());
+                    ps.setDate(6, Date.valueOf(due));
+                    ps.setTimestamp(7, Timestamp.valueOf(now));
+                }));
+
+        int inserted = 0;
+        if (results != null) {
+            for (int[] batch : results) {
+                for (int count : batch) {
+                    // Sürücü satır sayısını bildiremezse SUCCESS_NO_INFO (-2) döner
+                    inserted += count > 0 ? count : (count == Statement.SUCCESS_NO_INFO ? 1 : 0);
+                }
+            }
+        }
+        generatedCounter.increment(inserted);
+        return inserted;
+    }
+
+    private record PendingInvoice(long appointmentId, double total) {
+    }
+}
@@ -0,0 +1,221 @@
+package com.ece.dental_clinic.service;
+
+import com.ece.dental_clinic.dto.PatientNameView;
+import com.ece.dental_clinic.repository.PatientRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Hasta adı için bellek içi trigram index'i: "%ali%" gibi parça aramalarını DB'de full scan yapmadan
+// aday hasta id'lerine çevirir. Her trigram için sıralı long[] tutulur; dizi yazmada kopyalanır, okuma kilitsizdir.
+@Service
+public class PatientNameIndex {
+
+    private static final int GRAM = 3;
+
+    private final PatientRepository patientRepository;
+
+    private final Map<Long, String> names = new ConcurrentHashMap<>();
+    private final Map<String, long[]> postings = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+    // Yazımlar ve ilk yükleme tek kilitte; synchronized değil çünkü load DB beklerken virtual thread pinlenmesin
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public PatientNameIndex(PatientRepository patientRepository) {
+        this.patientRepository = patientRepository;
+    }
+
+    // Sıralı aday id'leri; boş dizi = eşleşen hasta yok
+    public long[] search(String fragment) {
+        ensureLoaded();
+
+        String q = normalize(fragment);
+        if (q.isEmpty()) {
+            return new long[0];
+        }
+        if (q.length() < GRAM) {
+            return scan(q);
+        }
+
+        List<long[]> lists = new ArrayList<>();
+        for (String gram : gramsOf(q)) {
+            long[] ids = postings.get(gram);
+            if (ids == null) {
+                return new long[0];
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(a -> a.length));
+
+        // En kısa listeden başlayıp diğerlerinde binary search; trigram eşleşmesi sıralı alt dizi garantilemez,
+        // bu yüzden sonunda tam ad üzerinden contains ile doğrulanır
+        long[] smallest = lists.get(0);
+        long[] result = new long[smallest.length];
+        int n = 0;
+        outer:
+        for (long id : smallest) {
+            for (int i = 1; i < lists.size(); i++) {
+                if (Arrays.binarySearch(lists.get(i), id) < 0) {
+                    continue outer;
+                }
+            }
+            String name = names.get(id);
+            if (name != null && name.contains(q)) {
+                result[n++] = id;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    // Entity listener'dan flush anında çağrılır; transaction içindeyse index commit sonrasına kadar değişmez,
+    // rollback olan bir yazım aramada görünmesin
+    public void upsert(Long id, String firstName, String lastName) {
+        AfterCommit.run(() -> apply(id, firstName, lastName));
+    }
+
+    public void remove(Long id) {
+        AfterCommit.run(() -> drop(id));
+    }
+
+    private void apply(Long id, String firstName, String lastName) {
+        writeLock.lock();
+        try {
+            if (id == null) {
+                return;
+            }
+            String name = normalize(firstName + " " + lastName);
+            String old = names.put(id, name);
+            if (name.equals(old)) {
+                return;
+            }
+            if (old != null) {
+                for (String gram : gramsOf(old)) {
+                    postings.computeIfPresent(gram, (k, ids) -> without(ids, id));
+                }
+            }
+            for (String gram : gramsOf(name)) {
+                postings.compute(gram, (k, ids) -> with(ids, id));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void drop(Long id) {
+        writeLock.lock();
+        try {
+            if (id == null) {
+                return;
+            }
+            String old = names.remove(id);
+            if (old == null) {
+                return;
+            }
+            for (String gram : gramsOf(old)) {
+                postings.computeIfPresent(gram, (k, ids) -> without(ids, id));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            load();
+        }
+    }
+
+    // Listener'dan gelen yazımlar da aynı kilidi kullandığı için yükleme sırasında kayıp olmaz; upsert idempotent
+    private void load() {
+        writeLock.lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            for (PatientNameView p : patientRepository.findAllNames()) {
+                apply(p.getId(), p.getFirstName(), p.getLastName());
+            }
+            loaded = true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // 1-2 harflik aramalarda trigram yok; ad listesi doğrudan taranır
+    private long[] scan(String q) {
+        long[] result = new long[names.size()];
+        int n = 0;
+        for (Map.Entry<Long, String> e : names.entrySet()) {
+            if (e.getValue().contains(q)) {
+                if (n == result.length) {
+                    result = Arrays.copyOf(result, n * 2 + 1);
+                }
+                result[n++] = e.getKey();
+            }
+        }
+        long[] ids = Arrays.copyOf(result, n);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private static Set<String> gramsOf(String s) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= s.length(); i++) {
+            grams.add(s.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    // Büyük/küçük harf ve Türkçe I/İ/ı farkı aramayı etkilemesin diye tek biçime indirilir
+    static String normalize(String s) {
+        if (s == null) {
+            return "";
+        }
+        return s.toLowerCase(Locale.ROOT)
+                .replace("\u0307", "")
+                .replace('ı', 'i')
+                .trim()
+                .replaceAll("\\s+", " ");
+    }
+
+    private static long[] with(long[] ids, long id) {
+        if (ids == null) {
+            return new long[]{id};
+        }
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos >= 0) {
+            return ids;
+        }
+        int at = -pos - 1;
+        long[] copy = new long[ids.length + 1];
+        System.arraycopy(ids, 0, copy, 0, at);
+        copy[at] = id;
+        System.arraycopy(ids, at, copy, at + 1, ids.length - at);
+        return copy;
+    }
+
+    // null dönerse compute girdiyi map'ten siler
+    private static long[] without(long[] ids, long id) {
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return null;
+        }
+        long[] copy = new long[ids.length - 1];
+        System.arraycopy(ids, 0, copy, 0, pos);
+        System.arraycopy(ids, pos + 1, copy, pos, ids.length - pos - 1);
+        return copy;
+    }
+}
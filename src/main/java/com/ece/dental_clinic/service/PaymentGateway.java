@@ -0,0 +1,28 @@
+package com.ece.dental_clinic.service;
+
+import java.math.BigDecimal;
+
+// Kart ödemesini dış sağlayıcıya ileten uç nokta. Çağrı bloklayıcıdır; PaymentProcessor'ın worker thread'lerinde çalışır.
+public interface PaymentGateway {
+
+    ChargeResult charge(ChargeRequest request);
+
+    record ChargeRequest(Long paymentId,
+                         BigDecimal amount,
+                         String brand,
+                         String cardNumber,
+                         String exp,
+                         String cvv) {
+    }
+
+    record ChargeResult(boolean approved, String transactionNo, String declineReason) {
+
+        public static ChargeResult approved(String transactionNo) {
+            return new ChargeResult(true, transactionNo, null);
+        }
+
+        public static ChargeResult declined(String reason) {
+            return new ChargeResult(false, null, reason);
+        }
+    }
+}
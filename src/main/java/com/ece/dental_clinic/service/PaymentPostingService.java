@@ -0,0 +1,115 @@
+package com.ece.dental_clinic.service;
+
+import com.ece.dental_clinic.entity.Payment;
+import com.ece.dental_clinic.enums.PaymentMethod;
+import com.ece.dental_clinic.repository.InvoiceRepository;
+import com.ece.dental_clinic.repository.PaymentRepository;
+import com.ece.dental_clinic.repository.RevenueRollupRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+// Ödeme kaydı ve fatura bakiyesi aynı transaction'da yazılır.
+// Bakiye kontrolü ayrı bir SELECT ile değil, invoice satırını kilitleyen koşullu UPDATE ile yapılır;
+// eşzamanlı iki ödeme sırayla değerlendirilir ve toplam hiçbir zaman fatura tutarını aşmaz.
+@Service
+public class PaymentPostingService {
+
+    private final InvoiceRepository invoiceRepository;
+    private final PaymentRepository paymentRepository;
+    private final PaymentProcessor paymentProcessor;
+    private final RevenueRollupRepository revenueRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public PaymentPostingService(InvoiceRepository invoiceRepository,
+                                 PaymentRepository paymentRepository,
+                                 PaymentProcessor paymentProcessor,
+                                 RevenueRollupRepository revenueRollupRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.invoiceRepository = invoiceRepository;
+        this.paymentRepository = paymentRepository;
+        this.paymentProcessor = paymentProcessor;
+        this.revenueRollupRepository = revenueRollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Boş dönerse ödeme kabul edilmedi (kalan bakiyeyi aşıyor veya fatura iptal)
+    public Optional<Payment> post(Long invoiceId, BigDecimal rawAmount, PaymentMethod method) {
+        BigDecimal amount = normalize(rawAmount);
+        if (amount == null) {
+            return Optional.empty();
+        }
+
+        return transactionTemplate.execute(status -> {
+            if (invoiceRepository.applyPayment(invoiceId, amount) == 0) {
+                return Optional.empty();
+            }
+            Payment saved = paymentRepository.save(newPayment(invoiceId, amount, method, "SUCCESS", "TX-" + UUID.randomUUID()));
+            // IDENTITY id: satır save'de yazıldı, gelir özeti aynı transaction'da güncellenir
+            revenueRollupRepository.addPayment(saved.getId());
+            return Optional.of(saved);
+        });
+    }
+
+    // Kart ödemesi: tutar faturada ayrılır, PENDING kayıt commit edildikten sonra gateway'e gönderilir.
+    // Sonuç PaymentProcessor tarafından asenkron yazılır; istek thread'i gateway'i beklemez.
+    public Optional<Payment> submitCard(Long invoiceId, BigDecimal rawAmount,
+                                        String brand, String cardNumber, String exp, String cvv) {
+        BigDecimal amount = normalize(rawAmount);
+        if (amount == null) {
+            return Optional.empty();
+        }
+
+        Optional<Payment> pending = transactionTemplate.execute(status -> {
+            if (invoiceRepository.reservePayment(invoiceId, amount) == 0) {
+                return Optional.empty();
+            }
+            return Optional.of(paymentRepository.save(newPayment(invoiceId, amount, PaymentMethod.CARD, "PENDING", null)));
+        });
+
+        pending.ifPresent(p -> AfterCommit.run(() -> paymentProcessor.dispatch(invoiceId,
+                new PaymentGateway.ChargeRequest(p.getId(), amount, brand, cardNumber, exp, cvv))));
+        return pending;
+    }
+
+    // Formdan gelen tutar: virgül ondalık ayracı kabul edilir. Boş, sayı olmayan veya pozitif olmayan giriş null döner.
+    public static BigDecimal parseAmount(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(raw.replace(",", ".").trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return amount.signum() > 0 ? amount : null;
+    }
+
+    // Kolon numeric(10, 2); bakiye kontrolü de saklanacak değerle yapılsın
+    private static BigDecimal normalize(BigDecimal rawAmount) {
+        if (rawAmount == null) {
+            return null;
+        }
+        BigDecimal amount = rawAmount.setScale(2, RoundingMode.HALF_UP);
+        return amount.signum() > 0 ? amount : null;
+    }
+
+    private Payment newPayment(Long invoiceId, BigDecimal amount, PaymentMethod method,
+                               String status, String transactionNo) {
+        Payment p = new Payment();
+        p.setInvoice(invoiceRepository.getReferenceById(invoiceId));
+        p.setAmount(amount);
+        p.setPaymentDatetime(LocalDateTime.now());
+        p.setPaymentMethod(method);
+        p.setPaymentStatus(status);
+        p.setTransactionNo(transactionNo);
+        return p;
+    }
+}
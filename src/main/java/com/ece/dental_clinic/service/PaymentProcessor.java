@@ -0,0 +1,145 @@
+package com.ece.dental_clinic.service;
+
+import com.ece.dental_clinic.dto.PendingPayment;
+import com.ece.dental_clinic.repository.InvoiceRepository;
+import com.ece.dental_clinic.repository.PaymentRepository;
+import com.ece.dental_clinic.repository.RevenueRollupRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+// PENDING kart ödemelerini gateway'e gönderir ve sonucu ödeme + fatura bakiyesine yazar.
+// Görev yalnızca bellekteki kuyruktadır; restart ya da kayıp görev ödemeyi PENDING ve tutarı ayrılmış bırakır.
+// Kart bilgisi saklanmadığı için bu ödemeler yeniden gönderilemez; zaman aşımında FAILED yapılıp ayrım bırakılır.
+@Service
+public class PaymentProcessor {
+
+    private static final int SWEEP_BATCH = 500;
+
+    private final PaymentGateway paymentGateway;
+    private final PaymentRepository paymentRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final RevenueRollupRepository revenueRollupRepository;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final long pendingTimeoutMinutes;
+
+    private final Timer approvedTimer;
+    private final Timer declinedTimer;
+    private final Counter rejectedCounter;
+    private final Counter timedOutCounter;
+
+    public PaymentProcessor(PaymentGateway paymentGateway,
+                            PaymentRepository paymentRepository,
+                            InvoiceRepository invoiceRepository,
+                            RevenueRollupRepository revenueRollupRepository,
+                            @Qualifier("paymentExecutor") ThreadPoolTaskExecutor executor,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${clinic.payments.pending-timeout-minutes:15}") long pendingTimeoutMinutes) {
+        this.paymentGateway = paymentGateway;
+        this.paymentRepository = paymentRepository;
+        this.invoiceRepository = invoiceRepository;
+        this.revenueRollupRepository = revenueRollupRepository;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pendingTimeoutMinutes = Math.max(pendingTimeoutMinutes, 1);
+
+        this.approvedTimer = gatewayTimer(meterRegistry, "approved");
+        this.declinedTimer = gatewayTimer(meterRegistry, "declined");
+        this.rejectedCounter = Counter.builder("clinic.payments.rejected")
+                .description("Kuyruk dolu olduğu için işlenmeden kapatılan ödemeler")
+                .register(meterRegistry);
+        this.timedOutCounter = Counter.builder("clinic.payments.timed_out")
+                .description("Zaman aşımında FAILED yapılan PENDING ödemeler")
+                .register(meterRegistry);
+    }
+
+    public void dispatch(Long invoiceId, PaymentGateway.ChargeRequest request) {
+        try {
+            executor.execute(() -> process(invoiceId, request));
+        } catch (RejectedExecutionException e) {
+            // TaskRejectedException da bunun alt sınıfı; kapanmakta olan havuz da buraya düşer
+            rejectedCounter.increment();
+            complete(invoiceId, request.paymentId(), request.amount(), PaymentGateway.ChargeResult.declined("busy"));
+        }
+    }
+
+    // Zaman aşımı gateway gecikmesinin çok üstünde olmalı: süren bir çağrının sonucu sonradan gelirse
+    // completePending 0 döner ve yok sayılır
+    @Scheduled(
+            initialDelayString = "${clinic.payments.sweep-ms:60000}",
+            fixedDelayString = "${clinic.payments.sweep-ms:60000}"
+    )
+    public int failStalePending() {
+        LocalDateTime before = LocalDateTime.now().minusMinutes(pendingTimeoutMinutes);
+        int total = 0;
+        while (true) {
+            List<PendingPayment> stale = paymentRepository.findStalePending(before, PageRequest.of(0, SWEEP_BATCH));
+            for (PendingPayment p : stale) {
+                if (complete(p.getInvoiceId(), p.getId(), p.getAmount(), PaymentGateway.ChargeResult.declined("timeout"))) {
+                    total++;
+                }
+            }
+            if (stale.size() < SWEEP_BATCH) {
+                break;
+            }
+        }
+        timedOutCounter.increment(total);
+        return total;
+    }
+
+    private void process(Long invoiceId, PaymentGateway.ChargeRequest request) {
+        long started = System.nanoTime();
+        PaymentGateway.ChargeResult result;
+        try {
+            result = paymentGateway.charge(request);
+        } catch (RuntimeException e) {
+            result = PaymentGateway.ChargeResult.declined("error");
+        }
+        (result.approved() ? approvedTimer : declinedTimer).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        complete(invoiceId, request.paymentId(), request.amount(), result);
+    }
+
+    private boolean complete(Long invoiceId, Long paymentId, BigDecimal amount, PaymentGateway.ChargeResult result) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            String paymentStatus = result.approved() ? "SUCCESS" : "FAILED";
+            String transactionNo = result.approved() ? result.transactionNo() : "DECLINED-" + result.declineReason();
+
+            // Ödeme zaten kapatılmışsa fatura bakiyesine ikinci kez dokunulmaz
+            if (paymentRepository.completePending(paymentId, paymentStatus, transactionNo) == 0) {
+                return false;
+            }
+            if (result.approved()) {
+                invoiceRepository.capturePayment(invoiceId, amount);
+                revenueRollupRepository.addPayment(paymentId);
+            } else {
+                invoiceRepository.releasePayment(invoiceId, amount);
+            }
+            return true;
+        }));
+    }
+
+    private static Timer gatewayTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("clinic.payments.gateway")
+                .description("Gateway çağrı süresi")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,60 @@
+package com.ece.dental_clinic.service;
+
+import com.ece.dental_clinic.dto.DentistSummary;
+import com.ece.dental_clinic.dto.RevenueRow;
+import com.ece.dental_clinic.repository.RevenueRollupRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Gelir raporları yalnızca revenue_daily özetinden okunur: bir yıllık rapor hekim başına en fazla
+// 365 x yöntem sayısı satır tarar. Özet, ödeme SUCCESS olurken aynı transaction'da artırılır.
+@Service
+public class RevenueReportService {
+
+    private final RevenueRollupRepository rollupRepository;
+    private final DentistDirectory dentistDirectory;
+    private final TransactionTemplate transactionTemplate;
+
+    public RevenueReportService(RevenueRollupRepository rollupRepository,
+                                DentistDirectory dentistDirectory,
+                                PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.dentistDirectory = dentistDirectory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // monthly=false ise günlük
+    public List<RevenueRow> dentistRevenue(Long dentistId, LocalDate from, LocalDate to, boolean monthly) {
+        return rollupRepository.dentistByPeriod(dentistId, monthly ? "month" : "day", from, to);
+    }
+
+    public List<RevenueRow> clinicRevenueByDentist(Long clinicId, LocalDate from, LocalDate to) {
+        return rollupRepository.clinicByDentist(clinicId, from, to, id -> dentistDirectory.findById(id)
+                .map(DentistSummary::getDisplayName)
+                .orElse("#" + id));
+    }
+
+    // Özeti ham ödemelerden yeniden hesaplar. from null ise ilk ödemenin gününden başlar.
+    // Her ay ayrı transaction: tablo kilidi ödeme akışını en fazla bir aylık hesap süresince bekletir.
+    public long rebuild(LocalDate from, LocalDate to) {
+        LocalDate start = from != null ? from : rollupRepository.firstPaymentDay();
+        if (start == null) {
+            return 0;
+        }
+
+        long rows = 0;
+        LocalDate monthStart = start;
+        while (!monthStart.isAfter(to)) {
+            LocalDate monthEnd = monthStart.withDayOfMonth(monthStart.lengthOfMonth());
+            LocalDate chunkFrom = monthStart;
+            LocalDate chunkTo = monthEnd.isAfter(to) ? to : monthEnd;
+            rows += transactionTemplate.execute(status -> rollupRepository.rebuild(chunkFrom, chunkTo));
+            monthStart = monthEnd.plusDays(1);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,255 @@
+package com.ece.dental_clinic.service;
+
+import com.ece.dental_clinic.dto.BusyInterval;
+import com.ece.dental_clinic.enums.AppointmentStatus;
+import com.ece.dental_clinic.repository.AppointmentRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Component
+public class SlotAvailabilityIndex {
+
+    public static final LocalTime WORK_START = LocalTime.of(9, 0);
+    public static final LocalTime WORK_END = LocalTime.of(17, 0);
+    public static final int DEFAULT_SLOT_MINUTES = 30;
+
+    private static final int DAY_MINUTES = (int) ChronoUnit.MINUTES.between(WORK_START, WORK_END);
+    private static final int VERSION_STRIPES = 64;
+
+    private final AppointmentRepository appointmentRepository;
+
+    // DaySchedule nesneleri değiştirilemez; güncellemeler yeni kopya yayınlar, okumalar kilitsizdir
+    private final ConcurrentMap<DayKey, DaySchedule> days = new ConcurrentHashMap<>();
+
+    // Gün başına (şeritli) değişiklik sayacı: yükleme sürerken gelen bir geçiş, gün henüz map'te olmadığı için
+    // computeIfPresent'te kaybolur. Yükleyen taraf sayacın değişip değişmediğine bakarak eski sonucu geri çeker.
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public SlotAvailabilityIndex(AppointmentRepository appointmentRepository) {
+        this.appointmentRepository = appointmentRepository;
+    }
+
+    public static int durationOf(Integer defaultDurationMinutes) {
+        return (defaultDurationMinutes != null && defaultDurationMinutes > 0)
+                ? defaultDurationMinutes
+                : DEFAULT_SLOT_MINUTES;
+    }
+
+    public List<LocalDateTime> freeSlots(Long dentistId, LocalDate date, int slotMinutes, LocalDateTime notBefore) {
+        DaySchedule schedule = day(dentistId, date);
+
+        List<LocalDateTime> slots = new ArrayList<>();
+        int lastStart = DAY_MINUTES - slotMinutes;
+        for (int start = 0; start <= lastStart; start += slotMinutes) {
+            if (schedule.overlaps(start, start + slotMinutes)) {
+                continue;
+            }
+            LocalDateTime slot = date.atTime(WORK_START).plusMinutes(start);
+            if (!slot.isBefore(notBefore)) {
+                slots.add(slot);
+            }
+        }
+        return slots;
+    }
+
+    public boolean hasConflict(Long dentistId, LocalDateTime start, int durationMinutes) {
+        int from = minuteOf(start);
+        return day(dentistId, start.toLocalDate()).overlaps(from, from + durationMinutes);
+    }
+
+    // DB'deki güncel durumu yükleyip cache'i yeniler; booking transaction'ı içinde, advisory lock alındıktan sonra çağrılır
+    public boolean hasConflictInDb(Long dentistId, LocalDateTime start, int durationMinutes) {
+        int from = minuteOf(start);
+        return dayFromDb(dentistId, start.toLocalDate()).overlaps(from, from + durationMinutes);
+    }
+
+    // Toplu aktarım aynı gün için birden çok satırı kontrol eder; gün bir kez yüklenir, satırlar kopyaya eklenir
+    DaySchedule dayFromDb(Long dentistId, LocalDate date) {
+        DayKey key = new DayKey(dentistId, date);
+        DaySchedule fresh = load(key);
+        days.put(key, fresh);
+        return fresh;
+    }
+
+    public void markBooked(Long dentistId, LocalDateTime start, int durationMinutes) {
+        int from = minuteOf(start);
+        DayKey key = new DayKey(dentistId, start.toLocalDate());
+        bump(key);
+        days.computeIfPresent(key, (k, current) -> current.with(from, from + durationMinutes));
+    }
+
+    public void markReleased(Long dentistId, LocalDateTime start) {
+        int from = minuteOf(start);
+        DayKey key = new DayKey(dentistId, start.toLocalDate());
+        bump(key);
+        days.computeIfPresent(key, (k, current) -> current.without(from));
+    }
+
+    // Toplu aktarım gibi index'i atlayan yazımlardan sonra gün bir sonraki okumada DB'den yeniden yüklenir
+    public void invalidate(Long dentistId, LocalDate date) {
+        DayKey key = new DayKey(dentistId, date);
+        bump(key);
+        days.remove(key);
+    }
+
+    @Scheduled(cron = "${clinic.slots.evict-cron:0 5 0 * * *}")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        days.keySet().removeIf(key -> key.date().isBefore(today));
+    }
+
+    private DaySchedule day(Long dentistId, LocalDate date) {
+        // Miss durumunda gün DB'den yüklenir. Sorgu computeIfAbsent içinde yapılmaz: map'in bin kilidi altında
+        // JDBC beklemek virtual thread'de carrier'ı pinler. Aynı güne iki paralel yükleme olabilir, ilk yazılan kalır.
+        DayKey key = new DayKey(dentistId, date);
+        DaySchedule cached = days.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long version = versions.get(stripe(key));
+        DaySchedule loaded = load(key);
+        DaySchedule prior = days.putIfAbsent(key, loaded);
+        if (prior != null) {
+            return prior;
+        }
+        // Yayından sonra kontrol: geçiş yayından önce geldiyse sonuç eski olabilir, geri çekilir ve sonraki okuma
+        // yeniden yükler. Yayından sonra gelen geçiş değeri zaten değiştirmiştir; remove(key, loaded) onu silmez.
+        if (versions.get(stripe(key)) != version) {
+            days.remove(key, loaded);
+        }
+        return loaded;
+    }
+
+    private void bump(DayKey key) {
+        versions.incrementAndGet(stripe(key));
+    }
+
+    private static int stripe(DayKey key) {
+        return Math.floorMod(key.hashCode(), VERSION_STRIPES);
+    }
+
+    private DaySchedule load(DayKey key) {
+        List<BusyInterval> busy = appointmentRepository.findBusyIntervals(
+                key.dentistId(),
+                key.date().atStartOfDay(),
+                key.date().plusDays(1).atStartOfDay(),
+                AppointmentStatus.FINAL_STATUSES
+        );
+
+        int[] starts = new int[busy.size()];
+        int[] ends = new int[busy.size()];
+        for (int i = 0; i < busy.size(); i++) {
+            BusyInterval b = busy.get(i);
+            Long minutes = b.getDurationMinutes();
+            starts[i] = minuteOf(b.getStart());
+            ends[i] = starts[i] + durationOf(minutes == null ? null : minutes.intValue());
+        }
+        return DaySchedule.of(starts, ends);
+    }
+
+    // Mesai başlangıcına göre dakika; mesai dışındaki kayıtlar negatif veya DAY_MINUTES üstü olabilir
+    static int minuteOf(LocalDateTime dt) {
+        return (int) ChronoUnit.MINUTES.between(WORK_START, dt.toLocalTime());
+    }
+
+    private record DayKey(Long dentistId, LocalDate date) {
+    }
+
+    // Başlangıca göre sıralı [start, end) aralıkları. maxEnd[i], 0..i aralıklarının en geç bitişidir;
+    // böylece çakışan eski kayıtlar olsa bile çakışma sorgusu tek bir binary search ile cevaplanır.
+    static final class DaySchedule {
+
+        private final int[] starts;
+        private final int[] ends;
+        private final int[] maxEnd;
+
+        private DaySchedule(int[] starts, int[] ends) {
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnd = new int[starts.length];
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < starts.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnd[i] = max;
+            }
+        }
+
+        static DaySchedule of(int[] starts, int[] ends) {
+            Integer[] order = new Integer[starts.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (x, y) -> Integer.compare(starts[x], starts[y]));
+
+            int[] sortedStarts = new int[starts.length];
+            int[] sortedEnds = new int[ends.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedStarts[i] = starts[order[i]];
+                sortedEnds[i] = ends[order[i]];
+            }
+            return new DaySchedule(sortedStarts, sortedEnds);
+        }
+
+        boolean overlaps(int from, int to) {
+            // start < to olan son aralık
+            int k = lastStartBefore(to);
+            return k >= 0 && maxEnd[k] > from;
+        }
+
+        DaySchedule with(int from, int to) {
+            int pos = lastStartBefore(from + 1) + 1;
+
+            int[] newStarts = new int[starts.length + 1];
+            int[] newEnds = new int[ends.length + 1];
+            System.arraycopy(starts, 0, newStarts, 0, pos);
+            System.arraycopy(ends, 0, newEnds, 0, pos);
+            newStarts[pos] = from;
+            newEnds[pos] = to;
+            System.arraycopy(starts, pos, newStarts, pos + 1, starts.length - pos);
+            System.arraycopy(ends, pos, newEnds, pos + 1, ends.length - pos);
+            return new DaySchedule(newStarts, newEnds);
+        }
+
+        DaySchedule without(int from) {
+            int pos = Arrays.binarySearch(starts, from);
+            if (pos < 0) {
+                return this;
+            }
+
+            int[] newStarts = new int[starts.length - 1];
+            int[] newEnds = new int[ends.length - 1];
+            System.arraycopy(starts, 0, newStarts, 0, pos);
+            System.arraycopy(ends, 0, newEnds, 0, pos);
+            System.arraycopy(starts, pos + 1, newStarts, pos, starts.length - pos - 1);
+            System.arraycopy(ends, pos + 1, newEnds, pos, ends.length - pos - 1);
+            return new DaySchedule(newStarts, newEnds);
+        }
+
+        private int lastStartBefore(int value) {
+            int lo = 0;
+            int hi = starts.length - 1;
+            int result = -1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (starts[mid] < value) {
+                    result = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return result;
+        }
+    }
+}
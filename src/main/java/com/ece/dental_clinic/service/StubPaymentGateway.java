@@ -0,0 +1,45 @@
+package com.ece.dental_clinic.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Yerel test/yük testi için: gecikme ve red oranı ayarlanabilir, dışarıya çağrı yapmaz
+@Component
+@ConditionalOnProperty(name = "clinic.payments.gateway", havingValue = "stub", matchIfMissing = true)
+public class StubPaymentGateway implements PaymentGateway {
+
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double failureRate;
+
+    public StubPaymentGateway(
+            @Value("${clinic.payments.stub.latency-ms:800}") long latencyMs,
+            @Value("${clinic.payments.stub.jitter-ms:400}") long jitterMs,
+            @Value("${clinic.payments.stub.failure-rate:0.1}") double failureRate
+    ) {
+        this.latencyMs = Math.max(latencyMs, 0);
+        this.jitterMs = Math.max(jitterMs, 0);
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public ChargeResult charge(ChargeRequest request) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMs + (jitterMs > 0 ? random.nextLong(jitterMs + 1) : 0);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ChargeResult.declined("interrupted");
+        }
+
+        if (random.nextDouble() < failureRate) {
+            return ChargeResult.declined("declined");
+        }
+        return ChargeResult.approved("STUB-" + UUID.randomUUID());
+    }
+}
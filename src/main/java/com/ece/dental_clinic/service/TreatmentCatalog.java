@@ -0,0 +1,116 @@
+package com.ece.dental_clinic.service;
+
+import com.ece.dental_clinic.entity.Treatment;
+import com.ece.dental_clinic.repository.TreatmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class TreatmentCatalog {
+
+    private final TreatmentRepository treatmentRepository;
+    private final long ttlNanos;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    private volatile Snapshot snapshot;
+    // synchronized yerine: reload DB beklerken virtual thread carrier'ı pinlemesin
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    // Her invalidate'te artar; yükleme sırasında değiştiyse okunan veri eski olabilir, cache'e yazılmaz
+    private final AtomicLong generation = new AtomicLong();
+
+    public TreatmentCatalog(
+            TreatmentRepository treatmentRepository,
+            MeterRegistry meterRegistry,
+            @Value("${clinic.treatments.cache-ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.treatmentRepository = treatmentRepository;
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.hits = Counter.builder("clinic.treatments.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("clinic.treatments.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    public List<Treatment> findActive() {
+        return current().active;
+    }
+
+    // Her arama tek sonuç sayar: DB'ye gitmeden bulunduysa hit, yeniden yükleme ya da DB'ye düşme gerektiyse miss
+    public Optional<Treatment> findById(Long id) {
+        Snapshot s = fresh();
+        boolean cached = s != null;
+        if (!cached) {
+            s = reload();
+        }
+        Treatment t = s.byId.get(id);
+        if (t != null) {
+            (cached ? hits : misses).increment();
+            return Optional.of(t);
+        }
+        // Cache'te olmayan id (ör. başka bir node'da yeni eklenmiş) için DB'ye düş
+        misses.increment();
+        return treatmentRepository.findById(id);
+    }
+
+    // Transaction içinde çağrılırsa commit sonrasına bırakılır: commit öncesi silinen cache'i
+    // eşzamanlı bir okuma eski satırlarla doldurup TTL boyunca tutmasın
+    public void invalidate() {
+        AfterCommit.run(() -> {
+            generation.incrementAndGet();
+            snapshot = null;
+        });
+    }
+
+    private Snapshot current() {
+        Snapshot s = fresh();
+        if (s != null) {
+            hits.increment();
+            return s;
+        }
+        misses.increment();
+        return reload();
+    }
+
+    private Snapshot fresh() {
+        Snapshot s = snapshot;
+        return s != null && System.nanoTime() - s.loadedAt < ttlNanos ? s : null;
+    }
+
+    private Snapshot reload() {
+        reloadLock.lock();
+        try {
+            Snapshot s = fresh();
+            if (s != null) {
+                return s;
+            }
+
+            long gen = generation.get();
+            List<Treatment> active = List.copyOf(treatmentRepository.findByActiveTrueOrderByNameAsc());
+            Map<Long, Treatment> byId = new HashMap<>();
+            for (Treatment t : treatmentRepository.findAll()) {
+                byId.put(t.getId(), t);
+            }
+
+            s = new Snapshot(active, Map.copyOf(byId), System.nanoTime());
+            if (generation.get() == gen) {
+                snapshot = s;
+            }
+            return s;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private record Snapshot(List<Treatment> active, Map<Long, Treatment> byId, long loadedAt) {
+    }
+}
@@ -0,0 +1,11 @@
+-- Yönetici hesabı (user_account.role = 'ADMIN') tek bir kliniğe bağlıdır; toplu aktarım yalnızca o kliniğe yazar.
+-- Yöneticiler uygulama dışından eklenir, kayıt formu bu rolü vermez.
+create table if not exists clinic_admin (
+    user_account_id bigint primary key references user_account (id),
+    clinic_id       bigint not null references clinic (id)
+);
+
+-- Toplu aktarımla gelen tamamlanmış geçmiş randevular gün sonu faturalamasına girmez.
+-- Sabit default'lu kolon PostgreSQL 11+ için yalnızca katalog değişikliğidir, tablo yeniden yazılmaz.
+alter table appointment
+    add column if not exists billing_exempt boolean not null default false;
@@ -0,0 +1,90 @@
+-- Entity eşlemeleriyle birebir başlangıç şeması.
+-- Elle kurulmuş mevcut veritabanlarında bu sürüm baseline olarak atlanır.
+
+create table if not exists user_account (
+    id            bigserial primary key,
+    email         varchar(255) not null unique,
+    password_hash varchar(255) not null,
+    role          varchar(20)  not null,
+    is_active     boolean      not null default true,
+    created_at    timestamp    not null
+);
+
+create table if not exists clinic (
+    id            bigserial primary key,
+    name          varchar(255) not null,
+    address       varchar(500),
+    phone         varchar(30),
+    opening_hours varchar(100)
+);
+
+create table if not exists patient (
+    id              bigserial primary key,
+    user_account_id bigint       not null references user_account (id),
+    first_name      varchar(100) not null,
+    last_name       varchar(100) not null,
+    phone           varchar(30),
+    address         varchar(500),
+    birth_date      date
+);
+
+create table if not exists dentist (
+    id              bigserial primary key,
+    user_account_id bigint       not null references user_account (id),
+    clinic_id       bigint       not null references clinic (id),
+    first_name      varchar(100) not null,
+    last_name       varchar(100) not null,
+    specialty       varchar(150),
+    phone           varchar(30)
+);
+
+create table if not exists treatment (
+    id                       bigserial primary key,
+    name                     varchar(255)     not null,
+    description              varchar(1000),
+    default_price            double precision not null,
+    default_duration_minutes integer,
+    is_active                boolean          not null default true
+);
+
+create table if not exists appointment (
+    id                   bigserial primary key,
+    patient_id           bigint      not null references patient (id),
+    dentist_id           bigint      not null references dentist (id),
+    clinic_id            bigint      not null references clinic (id),
+    appointment_datetime timestamp   not null,
+    status               varchar(20) not null,
+    notes                text,
+    created_at           timestamp   not null,
+    archived_at          timestamp
+);
+
+create table if not exists appointment_treatment (
+    id             bigserial primary key,
+    appointment_id bigint           not null references appointment (id),
+    treatment_id   bigint           not null references treatment (id),
+    quantity       integer          not null,
+    unit_price     double precision not null,
+    total_price    double precision not null
+);
+
+create table if not exists invoice (
+    id              bigserial primary key,
+    appointment_id  bigint           not null references appointment (id),
+    total_amount    double precision not null,
+    discount_amount double precision not null,
+    final_amount    double precision not null,
+    status          varchar(20)      not null,
+    due_date        date,
+    created_at      timestamp        not null
+);
+
+create table if not exists payment (
+    id               bigserial primary key,
+    invoice_id       bigint         references invoice (id),
+    amount           numeric(10, 2) not null,
+    payment_datetime timestamp      not null,
+    payment_method   varchar(30)    not null,
+    payment_status   varchar(20)    not null,
+    transaction_no   varchar(100)
+);
@@ -0,0 +1,28 @@
+-- Sık çalışan sorguların erişim yollarına göre index'ler.
+
+-- Doktor paneli (keyset sayfalama), müsaitlik/çakışma kontrolü: dentist_id + tarih aralığı
+create index if not exists ix_appointment_dentist_datetime
+    on appointment (dentist_id, appointment_datetime desc, id desc);
+
+-- Hasta paneli arşivlenmemiş randevuları gösterir
+create index if not exists ix_appointment_patient_datetime
+    on appointment (patient_id, appointment_datetime desc, id desc)
+    where archived_at is null;
+
+-- Süresi geçen randevu taraması sadece final olmayan kayıtlara bakar
+create index if not exists ix_appointment_open_datetime
+    on appointment (appointment_datetime, id)
+    where status not in ('COMPLETED', 'CANCELLED', 'EXPIRED');
+
+-- Panel satırındaki işlem adları ve süre toplamı
+create index if not exists ix_appointment_treatment_appointment
+    on appointment_treatment (appointment_id);
+
+-- InvoiceRepository.findByAppointment_Id ve panel join'i
+create index if not exists ix_invoice_appointment
+    on invoice (appointment_id);
+
+-- PaymentRepository.sumByInvoiceId: index-only scan için amount da index'te
+create index if not exists ix_payment_invoice_success
+    on payment (invoice_id) include (amount)
+    where payment_status = 'SUCCESS';
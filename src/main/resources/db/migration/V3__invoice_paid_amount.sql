@@ -0,0 +1,20 @@
+-- Faturada tutulan ödeme bakiyesi; mevcut başarılı ödemelerden doldurulur.
+
+alter table invoice
+    add column if not exists paid_amount numeric(10, 2) not null default 0;
+
+update invoice i
+set paid_amount = coalesce((
+        select sum(p.amount)
+        from payment p
+        where p.invoice_id = i.id
+          and p.payment_status = 'SUCCESS'
+    ), 0);
+
+update invoice
+set status = case
+                 when paid_amount >= round(cast(final_amount as numeric), 2) then 'PAID'
+                 when paid_amount > 0 then 'PARTIALLY_PAID'
+                 else 'UNPAID'
+             end
+where status <> 'CANCELLED';
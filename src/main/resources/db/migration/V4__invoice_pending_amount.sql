@@ -0,0 +1,4 @@
+-- Kart ödemeleri gateway sonucu gelene kadar bakiyeden ayrılır (PENDING).
+
+alter table invoice
+    add column if not exists pending_amount numeric(10, 2) not null default 0;
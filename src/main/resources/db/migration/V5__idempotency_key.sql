@@ -0,0 +1,11 @@
+-- Tekrarlanan POST'lar için anahtar -> ilk sonuç. Birden fazla instance aynı anahtarı
+-- işlerse primary key çakışması ikinci işlemi geri aldırır.
+
+create table if not exists idempotency_key (
+    idem_key   varchar(200) primary key,
+    result     varchar(500) not null,
+    created_at timestamp    not null
+);
+
+create index if not exists ix_idempotency_key_created_at
+    on idempotency_key (created_at);
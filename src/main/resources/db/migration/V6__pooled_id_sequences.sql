@@ -0,0 +1,25 @@
+-- Toplu yazılan tablolarda id'ler 50'lik bloklar halinde ayrılır (Hibernate pooled optimizer ve toplu içe aktarma).
+-- nextval bloğun üst sınırını verir; blok [değer - 49, değer] aralığıdır. Varsayılan nextval ile tek satır ekleyen
+-- SQL'ler yalnızca bloğun üst değerini kullanır, bu yüzden iki yol çakışmaz.
+-- Sayaç mevcut en büyük id'nin üstüne alınır; böylece ilk blok hiçbir zaman 1'in altına inmez.
+
+alter sequence user_account_id_seq increment by 50;
+select setval('user_account_id_seq',
+              greatest((select coalesce(max(id), 0) from user_account), (select last_value from user_account_id_seq), 1));
+
+alter sequence patient_id_seq increment by 50;
+select setval('patient_id_seq',
+              greatest((select coalesce(max(id), 0) from patient), (select last_value from patient_id_seq), 1));
+
+alter sequence dentist_id_seq increment by 50;
+select setval('dentist_id_seq',
+              greatest((select coalesce(max(id), 0) from dentist), (select last_value from dentist_id_seq), 1));
+
+alter sequence appointment_id_seq increment by 50;
+select setval('appointment_id_seq',
+              greatest((select coalesce(max(id), 0) from appointment), (select last_value from appointment_id_seq), 1));
+
+alter sequence appointment_treatment_id_seq increment by 50;
+select setval('appointment_treatment_id_seq',
+              greatest((select coalesce(max(id), 0) from appointment_treatment),
+                       (select last_value from appointment_treatment_id_seq), 1));
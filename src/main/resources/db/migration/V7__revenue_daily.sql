@@ -0,0 +1,27 @@
+-- Günlük gelir özeti: hekim + klinik + ödeme yöntemi başına başarılı ödeme toplamı.
+-- Ödeme SUCCESS olduğu transaction'da artırılır; raporlar payment tablosuna hiç inmez.
+-- Gün, ödemenin payment_datetime tarihidir (kart ödemesinde gateway onayının değil, ödemenin başlatıldığı gün).
+
+create table if not exists revenue_daily (
+    day            date           not null,
+    dentist_id     bigint         not null references dentist (id),
+    clinic_id      bigint         not null references clinic (id),
+    payment_method varchar(30)    not null,
+    amount         numeric(14, 2) not null,
+    payment_count  bigint         not null,
+    primary key (dentist_id, day, clinic_id, payment_method)
+);
+
+-- Klinik raporu
+create index if not exists ix_revenue_daily_clinic_day
+    on revenue_daily (clinic_id, day);
+
+-- Mevcut ödemelerden ilk doldurma
+insert into revenue_daily (day, dentist_id, clinic_id, payment_method, amount, payment_count)
+select cast(p.payment_datetime as date), a.dentist_id, a.clinic_id, p.payment_method, sum(p.amount), count(*)
+from payment p
+join invoice i on i.id = p.invoice_id
+join appointment a on a.id = i.appointment_id
+where p.payment_status = 'SUCCESS'
+group by 1, 2, 3, 4
+on conflict do nothing;
@@ -0,0 +1,46 @@
+-- Randevu başına tek fatura. Eşzamanlı iki üretim (tamamlama anı + gün sonu işi) "where not exists" ile
+-- birbirinin henüz commit edilmemiş satırını göremez; tekilliği yalnızca unique index garanti eder.
+
+-- Önceden oluşmuş kopyalar: en çok ödeme almış (eşitse en eski) fatura kalır.
+-- Kopyalara bağlı ödemeler silinmez, kalan faturaya taşınır; aksi halde unique index oluşturulamaz.
+create temporary table invoice_duplicate on commit drop as
+select id, survivor_id
+from (
+    select id,
+           first_value(id) over (partition by appointment_id order by paid_amount desc, id) as survivor_id
+    from invoice
+    where appointment_id is not null
+) d
+where id <> survivor_id;
+
+update payment p
+set invoice_id = d.survivor_id
+from invoice_duplicate d
+where p.invoice_id = d.id;
+
+delete from invoice i
+using invoice_duplicate d
+where i.id = d.id;
+
+-- Taşınan ödemelerle bakiye ve durum V3'teki kurala göre yeniden hesaplanır
+update invoice i
+set paid_amount    = coalesce((select sum(p.amount) from payment p
+                               where p.invoice_id = i.id and p.payment_status = 'SUCCESS'), 0),
+    pending_amount = coalesce((select sum(p.amount) from payment p
+                               where p.invoice_id = i.id and p.payment_status = 'PENDING'), 0)
+where i.id in (select survivor_id from invoice_duplicate);
+
+update invoice
+set status = case
+                 when paid_amount >= round(cast(final_amount as numeric), 2) then 'PAID'
+                 when paid_amount > 0 then 'PARTIALLY_PAID'
+                 else 'UNPAID'
+             end
+where id in (select survivor_id from invoice_duplicate)
+  and status <> 'CANCELLED';
+
+create unique index if not exists ux_invoice_appointment
+    on invoice (appointment_id);
+
+-- Unique index aynı erişim yolunu sağlar
+drop index if exists ix_invoice_appointment;
@@ -0,0 +1,4 @@
+-- PaymentProcessor.failStalePending her dakika çalışır; PENDING satırlar tablonun çok küçük bir kısmıdır
+create index if not exists ix_payment_pending_datetime
+    on payment (payment_datetime, id)
+    where payment_status = 'PENDING';
@@ -0,0 +1,225 @@
+package com.ece.dental_clinic;
+
+import com.ece.dental_clinic.load.LoadClient;
+import com.ece.dental_clinic.service.SlotAvailabilityIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Uygulamayı önce platform thread, sonra virtual thread ile ayağa kaldırıp hasta paneli (GET /patient/home)
+// ve randevu alma (POST /patient/appointments) uçlarını yüksek eşzamanlılıkla çağırır; throughput ve p50/p95/p99 raporlar.
+// İsim *Test ile bitmediği için normal build'de çalışmaz: mvn test -Dtest=VirtualThreadLoadComparison
+// Virtual mod Java 21+ runtime ister; 17'de yalnızca platform ölçümü yapılır.
+class VirtualThreadLoadComparison {
+
+    private static final int USERS = 400;
+    private static final int REQUESTS_PER_USER = 25;
+    private static final int DENTISTS = 20;
+    private static final String PASSWORD = "Yuk-Testi-123";
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        List<String> report = new ArrayList<>();
+        report.add("runtime: " + Runtime.version() + ", users: " + USERS + ", requests/user: " + REQUESTS_PER_USER);
+        report.add(String.format("%-10s %-10s %10s %10s %10s %10s %8s", "mode", "endpoint", "req/s", "p50 ms", "p95 ms", "p99 ms", "errors"));
+
+        report.addAll(run(false));
+        if (Runtime.version().feature() >= 21) {
+            report.addAll(run(true));
+        } else {
+            report.add("virtual: atlandı (Java 21+ gerekli)");
+        }
+
+        System.out.println();
+        report.forEach(System.out::println);
+    }
+
+    private List<String> run(boolean virtual) throws Exception {
+        String mode = virtual ? "virtual" : "platform";
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(DentalClinicApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "spring.jpa.show-sql=false",
+                        // Platform modunda eşzamanlılığı Tomcat havuzu sınırlar; karşılaştırma için varsayılan değer sabitlendi
+                        "server.tomcat.threads.max=200")
+                .run()) {
+
+            int port = ctx.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            Fixture fixture = new Fixture(ctx.getBean(JdbcTemplate.class), ctx.getBean(PasswordEncoder.class));
+            try {
+                fixture.seed();
+                LoadClient client = new LoadClient("http://localhost:" + port);
+                List<String> sessions = new ArrayList<>();
+                for (String email : fixture.emails) {
+                    sessions.add(client.login(email, PASSWORD));
+                }
+
+                AtomicInteger slot = new AtomicInteger();
+                Result dashboard = drive(sessions, session -> client.get(session, "/patient/home"), 200);
+                Result booking = drive(sessions, session -> client.post(session, "/patient/appointments",
+                        fixture.bookingForm(slot.getAndIncrement())), 302);
+
+                return List.of(dashboard.format(mode, "dashboard"), booking.format(mode, "booking"));
+            } finally {
+                fixture.cleanup();
+            }
+        }
+    }
+
+    // Her kullanıcı kendi oturumuyla ardışık istek atar; eşzamanlılık = kullanıcı sayısı.
+    // İstemci tarafı Java 17'de de çalışsın diye sabit boyutlu platform havuzu kullanılır.
+    private static Result drive(List<String> sessions, Call call, int expectedStatus) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(sessions.size());
+        CountDownLatch start = new CountDownLatch(1);
+        long[][] samples = new long[sessions.size()][REQUESTS_PER_USER];
+        AtomicInteger errors = new AtomicInteger();
+
+        for (int u = 0; u < sessions.size(); u++) {
+            int user = u;
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < REQUESTS_PER_USER; i++) {
+                    long t0 = System.nanoTime();
+                    int status;
+                    try {
+                        status = call.send(sessions.get(user));
+                    } catch (Exception e) {
+                        status = -1;
+                    }
+                    samples[user][i] = System.nanoTime() - t0;
+                    if (status != expectedStatus) {
+                        errors.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        long t0 = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.MINUTES));
+        long elapsed = System.nanoTime() - t0;
+
+        long[] all = Arrays.stream(samples).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, elapsed, errors.get());
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        int send(String session) throws Exception;
+    }
+
+    private record Result(long[] sortedNanos, long elapsedNanos, int errors) {
+
+        String format(String mode, String endpoint) {
+            return String.format("%-10s %-10s %10.1f %10.2f %10.2f %10.2f %8d",
+                    mode, endpoint,
+                    sortedNanos.length * 1_000_000_000.0 / elapsedNanos,
+                    percentile(0.50), percentile(0.95), percentile(0.99),
+                    errors);
+        }
+
+        private double percentile(double p) {
+            int i = (int) Math.ceil(sortedNanos.length * p) - 1;
+            return sortedNanos[Math.max(i, 0)] / 1_000_000.0;
+        }
+    }
+
+    // Her çalıştırma kendi kliniğini, hekimlerini ve hastalarını commit eder; sonunda etiketle silinir
+    private static final class Fixture {
+
+        private final JdbcTemplate jdbc;
+        private final PasswordEncoder passwordEncoder;
+        private final String tag = "load-" + UUID.randomUUID();
+        private final List<String> emails = new ArrayList<>();
+        private final List<Long> dentistIds = new ArrayList<>();
+        private long treatmentId;
+
+        private final int slotMinutes = SlotAvailabilityIndex.durationOf(SlotAvailabilityIndex.DEFAULT_SLOT_MINUTES);
+        private final int slotsPerDay = (int) (ChronoUnit.MINUTES.between(
+                SlotAvailabilityIndex.WORK_START, SlotAvailabilityIndex.WORK_END) / slotMinutes);
+        private final LocalDate firstDay = LocalDate.now().plusDays(1);
+
+        Fixture(JdbcTemplate jdbc, PasswordEncoder passwordEncoder) {
+            this.jdbc = jdbc;
+            this.passwordEncoder = passwordEncoder;
+        }
+
+        void seed() {
+            String hash = passwordEncoder.encode(PASSWORD);
+            long clinicId = jdbc.queryForObject(
+                    "insert into clinic (name) values (?) returning id", Long.class, tag);
+            treatmentId = jdbc.queryForObject("""
+                    insert into treatment (name, default_price, default_duration_minutes, is_active)
+                    values (?, 500, ?, true) returning id
+                    """, Long.class, tag, slotMinutes);
+
+            for (int d = 0; d < DENTISTS; d++) {
+                long userId = jdbc.queryForObject("""
+                        insert into user_account (email, password_hash, role, is_active, created_at)
+                        values (?, ?, 'DENTIST', true, now()) returning id
+                        """, Long.class, tag + "-d" + d + "@example.com", hash);
+                dentistIds.add(jdbc.queryForObject(
+                        "insert into dentist (user_account_id, clinic_id, first_name, last_name) values (?, ?, 'Yük', ?) returning id",
+                        Long.class, userId, clinicId, tag));
+            }
+            for (int p = 0; p < USERS; p++) {
+                String email = tag + "-p" + p + "@example.com";
+                long userId = jdbc.queryForObject("""
+                        insert into user_account (email, password_hash, role, is_active, created_at)
+                        values (?, ?, 'PATIENT', true, now()) returning id
+                        """, Long.class, email, hash);
+                jdbc.update("insert into patient (user_account_id, first_name, last_name) values (?, 'Yük', ?)", userId, tag);
+                emails.add(email);
+            }
+        }
+
+        // Sıra numarası hekimlere ve günün slotlarına dağıtılır; aynı slot iki kez istenmez
+        Map<String, String> bookingForm(int n) {
+            long dentistId = dentistIds.get(n % DENTISTS);
+            int slot = n / DENTISTS;
+            LocalDateTime at = firstDay.plusDays(slot / slotsPerDay)
+                    .atTime(SlotAvailabilityIndex.WORK_START)
+                    .plusMinutes((long) (slot % slotsPerDay) * slotMinutes);
+            return Map.of(
+                    "dentistId", String.valueOf(dentistId),
+                    "treatmentId", String.valueOf(treatmentId),
+                    "appointmentDatetime", at.toString(),
+                    "idempotencyKey", tag + "-" + n);
+        }
+
+        void cleanup() {
+            jdbc.update("""
+                    delete from appointment_treatment where appointment_id in
+                        (select a.id from appointment a join clinic c on c.id = a.clinic_id where c.name = ?)
+                    """, tag);
+            jdbc.update("delete from appointment where clinic_id in (select id from clinic where name = ?)", tag);
+            jdbc.update("delete from idempotency_key where idem_key like ?", "book:%:" + tag + "%");
+            jdbc.update("delete from patient where last_name = ?", tag);
+            jdbc.update("delete from dentist where last_name = ?", tag);
+            jdbc.update("delete from treatment where name = ?", tag);
+            jdbc.update("delete from clinic where name = ?", tag);
+            jdbc.update("delete from user_account where email like ?", tag + "%");
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.ece.dental_clinic.load;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+// Yük testi için sentetik klinik verisi. Her tablo tek bir set-based INSERT ... SELECT generate_series ile doldurulur;
+// satır satır JDBC yerine işi Postgres yapar, milyonluk tablolar dakikalar içinde hazır olur.
+// Tüm kullanıcılar aynı şifreyle giriş yapar; kayıtlar "loadgen-" e-posta öneki ve "Load " adlarıyla ayırt edilir.
+public final class ClinicDataGenerator {
+
+    public static final String PASSWORD = "Yuk-Testi-123";
+
+    private static final String FIRST_NAMES = """
+            array['Ali','Ayşe','Mehmet','Fatma','Mustafa','Emine','Ahmet','Hatice','Hüseyin','Zeynep',
+                  'İbrahim','Elif','Hasan','Merve','İsmail','Büşra','Osman','Özge','Yusuf','Şeyma']""";
+
+    private static final String LAST_NAMES = """
+            array['Yılmaz','Kaya','Demir','Şahin','Çelik','Yıldız','Yıldırım','Öztürk','Aydın','Özdemir',
+                  'Arslan','Doğan','Kılıç','Aslan','Çetin','Kara','Koç','Kurt','Özkan','Şimşek']""";
+
+    public record Scale(int clinics, int dentists, int patients, int appointments, int treatments) {
+
+        // -Dload.patients=200000 gibi; varsayılanlar tek makinede makul sürede üretilebilecek boyut
+        public static Scale fromSystemProperties() {
+            return new Scale(
+                    Integer.getInteger("load.clinics", 100),
+                    Integer.getInteger("load.dentists", 2_000),
+                    Integer.getInteger("load.patients", 200_000),
+                    Integer.getInteger("load.appointments", 2_000_000),
+                    Integer.getInteger("load.treatments", 40));
+        }
+    }
+
+    private final JdbcTemplate jdbc;
+    private final PasswordEncoder passwordEncoder;
+
+    public ClinicDataGenerator(JdbcTemplate jdbc, PasswordEncoder passwordEncoder) {
+        this.jdbc = jdbc;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    // Aynı ölçekte veri zaten varsa tekrar üretilmez; üretim uzun sürdüğü için çalıştırmalar arasında saklanır
+    public boolean exists(Scale scale) {
+        Integer patients = jdbc.queryForObject(
+                "select count(*) from user_account where email like 'loadgen-p%'", Integer.class);
+        return patients != null && patients >= scale.patients();
+    }
+
+    public void generate(Scale scale) {
+        cleanup();
+        // BCrypt pahalı; tüm hesaplar aynı hash'i paylaşır
+        String hash = passwordEncoder.encode(PASSWORD);
+
+        step("clinic", () -> jdbc.update("""
+                insert into clinic (name, address, phone, opening_hours)
+                select 'Load Klinik ' || g, 'Load Cad. No ' || g, '0212' || lpad(g::text, 7, '0'), '09:00-17:00'
+                from generate_series(1, ?) g
+                """, scale.clinics()));
+
+        step("treatment", () -> jdbc.update("""
+                insert into treatment (name, description, default_price, default_duration_minutes, is_active)
+                select 'Load İşlem ' || g, null, 200 + (g * 137) % 1800, (array[30, 45, 60])[1 + g % 3], true
+                from generate_series(1, ?) g
+                """, scale.treatments()));
+
+        step("dentist", () -> {
+            jdbc.update("""
+                    insert into user_account (email, password_hash, role, is_active, created_at)
+                    select 'loadgen-d' || g || '@example.com', ?, 'DENTIST', true, now()
+                    from generate_series(1, ?) g
+                    """, hash, scale.dentists());
+            return jdbc.update("""
+                    with c as (select array_agg(id order by id) ids, count(*) n from clinic where name like 'Load Klinik %%')
+                    insert into dentist (user_account_id, clinic_id, first_name, last_name, specialty)
+                    select u.id, c.ids[1 + u.id %% c.n],
+                           (%s)[1 + u.id %% 20], (%s)[1 + (u.id / 20) %% 20], 'Genel Diş Hekimliği'
+                    from user_account u, c
+                    where u.email like 'loadgen-d%%'
+                    """.formatted(FIRST_NAMES, LAST_NAMES));
+        });
+
+        step("patient", () -> {
+            jdbc.update("""
+                    insert into user_account (email, password_hash, role, is_active, created_at)
+                    select 'loadgen-p' || g || '@example.com', ?, 'PATIENT', true, now()
+                    from generate_series(1, ?) g
+                    """, hash, scale.patients());
+            return jdbc.update("""
+                    insert into patient (user_account_id, first_name, last_name, phone, birth_date)
+                    select u.id, (%s)[1 + u.id %% 20], (%s)[1 + (u.id / 7) %% 20],
+                           '0532' || lpad((u.id %% 10000000)::text, 7, '0'),
+                           date '1950-01-01' + (u.id * 37 %% 20000)::int
+                    from user_account u
+                    where u.email like 'loadgen-p%%'
+                    """.formatted(FIRST_NAMES, LAST_NAMES));
+        });
+
+        // Son iki yıl + önümüzdeki iki ay, mesai saatleri içinde 30 dakikalık slotlar.
+        // Geçmiştekilerin çoğu COMPLETED, bir kısmı iptal/süresi dolmuş, bir kısmı arşivli.
+        step("appointment", () -> jdbc.update("""
+                with p as (select array_agg(id) ids, count(*) n from patient
+                           where user_account_id in (select id from user_account where email like 'loadgen-p%')),
+                     d as (select array_agg(d.id order by d.id) ids, array_agg(d.clinic_id order by d.id) clinics, count(*) n
+                           from dentist d join user_account u on u.id = d.user_account_id where u.email like 'loadgen-d%'),
+                     s as (
+                         select g,
+                                date_trunc('day', now()) - interval '730 days'
+                                    + floor(random() * 790) * interval '1 day'
+                                    + interval '9 hours'
+                                    + floor(random() * 16) * interval '30 minutes' as at
+                         from generate_series(1, ?) g
+                     )
+                insert into appointment (patient_id, dentist_id, clinic_id, appointment_datetime, status, created_at, archived_at)
+                select p.ids[1 + (s.g * 7919) % p.n],
+                       d.ids[1 + s.g % d.n],
+                       d.clinics[1 + s.g % d.n],
+                       s.at,
+                       case
+                           when s.at >= now() then (array['SCHEDULED', 'CONFIRMED', 'PATIENT_CONFIRMED'])[1 + s.g % 3]
+                           when s.g % 23 = 0 then 'EXPIRED'
+                           when s.g % 7 = 0 then 'CANCELLED'
+                           else 'COMPLETED'
+                       end,
+                       s.at - interval '7 days',
+                       case when s.at < now() - interval '30 days' and s.g % 5 = 0 then s.at + interval '30 days' end
+                from s, p, d
+                """, scale.appointments()));
+
+        // Randevu başına 1-3 işlem satırı
+        step("appointment_treatment", () -> jdbc.update("""
+                with t as (select array_agg(id order by id) ids, array_agg(default_price order by id) prices, count(*) n
+                           from treatment where name like 'Load İşlem %')
+                insert into appointment_treatment (appointment_id, treatment_id, quantity, unit_price, total_price)
+                select a.id, t.ids[1 + (a.id * k) % t.n], 1, t.prices[1 + (a.id * k) % t.n], t.prices[1 + (a.id * k) % t.n]
+                from appointment a
+                join clinic c on c.id = a.clinic_id and c.name like 'Load Klinik %'
+                cross join t
+                cross join lateral generate_series(1, 1 + (a.id % 3)::int) k
+                where a.status <> 'CANCELLED'
+                """));
+
+        // COMPLETED randevuların faturası; üçte biri ödenmemiş, üçte biri kısmen, kalanı tamamen ödenmiş
+        step("invoice", () -> jdbc.update("""
+                insert into invoice (appointment_id, total_amount, discount_amount, final_amount, status, due_date,
+                                     created_at, paid_amount, pending_amount)
+                select a.id, x.total, 0, x.total,
+                       case a.id % 3 when 0 then 'UNPAID' when 1 then 'PAID' else 'PARTIALLY_PAID' end,
+                       (a.appointment_datetime + interval '30 days')::date,
+                       a.appointment_datetime,
+                       case a.id % 3 when 0 then 0 when 1 then round(x.total::numeric, 2) else round((x.total / 2)::numeric, 2) end,
+                       0
+                from appointment a
+                join clinic c on c.id = a.clinic_id and c.name like 'Load Klinik %'
+                cross join lateral (
+                    select coalesce(sum(at.total_price), 0) as total
+                    from appointment_treatment at where at.appointment_id = a.id
+                ) x
+                where a.status = 'COMPLETED'
+                """));
+
+        // Ödenen tutar kadar SUCCESS ödeme + her onda bir faturaya reddedilmiş bir kart denemesi
+        step("payment", () -> jdbc.update("""
+                insert into payment (invoice_id, amount, payment_datetime, payment_method, payment_status, transaction_no)
+                select i.id, i.paid_amount, i.created_at + interval '1 day',
+                       case when i.id % 2 = 0 then 'CARD' else 'CASH' end, 'SUCCESS', 'TX-LOAD-' || i.id
+                from invoice i
+                join appointment a on a.id = i.appointment_id
+                join clinic c on c.id = a.clinic_id and c.name like 'Load Klinik %'
+                where i.paid_amount > 0
+                union all
+                select i.id, round((i.final_amount / 2)::numeric, 2), i.created_at, 'CARD', 'FAILED', null
+                from invoice i
+                join appointment a on a.id = i.appointment_id
+                join clinic c on c.id = a.clinic_id and c.name like 'Load Klinik %'
+                where i.id % 10 = 0 and i.final_amount > 0
+                """));
+
+        step("analyze", () -> {
+            jdbc.execute("analyze");
+            return 0;
+        });
+    }
+
+    // Giriş yapılacak hastalar: her biri en az bir ödenmemiş faturaya sahip, ödeme trafiği o faturaya gider
+    public List<Map<String, Object>> patientSessions(int count) {
+        return jdbc.queryForList("""
+                select u.email, a.patient_id, min(i.id) as invoice_id
+                from invoice i
+                join appointment a on a.id = i.appointment_id
+                join patient p on p.id = a.patient_id
+                join user_account u on u.id = p.user_account_id
+                where i.status = 'UNPAID' and i.final_amount > 0 and u.email like 'loadgen-p%'
+                group by u.email, a.patient_id
+                order by a.patient_id
+                limit ?
+                """, count);
+    }
+
+    public List<Map<String, Object>> dentistSessions(int count) {
+        return jdbc.queryForList("""
+                select u.email, d.id as dentist_id, d.clinic_id
+                from dentist d
+                join user_account u on u.id = d.user_account_id
+                where u.email like 'loadgen-d%'
+                order by d.id
+                limit ?
+                """, count);
+    }
+
+    public List<Long> treatmentIds() {
+        return jdbc.queryForList("select id from treatment where name like 'Load İşlem %' order by id", Long.class);
+    }
+
+    // Slot hizasında randevu alınabilsin diye süresi verilen dakikaya eşit bir işlem
+    public long treatmentId(int durationMinutes) {
+        return jdbc.queryForObject("""
+                select min(id) from treatment where name like 'Load İşlem %' and default_duration_minutes = ?
+                """, Long.class, durationMinutes);
+    }
+
+    // Üretilen veri en fazla 60 gün ileri gider; önceki yük testlerinin eklediği randevular da hesaba katılır
+    public LocalDate firstFreeBookingDay() {
+        LocalDate last = jdbc.queryForObject("""
+                select max(a.appointment_datetime)::date
+                from appointment a join clinic c on c.id = a.clinic_id
+                where c.name like 'Load Klinik %'
+                """, LocalDate.class);
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        return last == null || last.isBefore(tomorrow) ? tomorrow : last.plusDays(1);
+    }
+
+    public void cleanup() {
+        String appointments = """
+                select a.id from appointment a join clinic c on c.id = a.clinic_id where c.name like 'Load Klinik %'""";
+        jdbc.update("delete from payment where invoice_id in (select id from invoice where appointment_id in (" + appointments + "))");
+        jdbc.update("delete from invoice where appointment_id in (" + appointments + ")");
+        jdbc.update("delete from appointment_treatment where appointment_id in (" + appointments + ")");
+        jdbc.update("delete from appointment where id in (" + appointments + ")");
+        jdbc.update("delete from revenue_daily where clinic_id in (select id from clinic where name like 'Load Klinik %')");
+        jdbc.update("delete from patient where user_account_id in (select id from user_account where email like 'loadgen-p%')");
+        jdbc.update("delete from dentist where user_account_id in (select id from user_account where email like 'loadgen-d%')");
+        jdbc.update("delete from treatment where name like 'Load İşlem %'");
+        jdbc.update("delete from clinic where name like 'Load Klinik %'");
+        jdbc.update("delete from user_account where email like 'loadgen-%'");
+        jdbc.update("delete from idempotency_key where idem_key like '%:loadgen-%'");
+    }
+
+    private static void step(String table, IntSupplier insert) {
+        long t0 = System.nanoTime();
+        int rows = insert.getAsInt();
+        System.out.printf("seed %-22s %,12d rows %8.1fs%n", table, rows, (System.nanoTime() - t0) / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,204 @@
+package com.ece.dental_clinic.load;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Uçtan uca yük testi: yerel Postgres'e üretim ölçeğinde sentetik veri basar, uygulamayı rastgele portta açar ve
+// giriş yapmış hasta/hekim oturumlarıyla karışık trafik üreterek uç bazında throughput ve p50/p95/p99 raporlar.
+// İsim *Test ile bitmediği için normal build'de çalışmaz:
+//   mvn test -Dtest=ClinicLoadSimulation -Dload.sessions=300 -Dload.duration-seconds=120
+// Veri ilk çalıştırmada üretilir ve saklanır (-Dload.regenerate=true yeniden üretir, -Dload.cleanup=true sonunda siler).
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.show-sql=false"
+)
+class ClinicLoadSimulation {
+
+    private static final int SESSIONS = Integer.getInteger("load.sessions", 200);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration-seconds", 60);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 15);
+    // Oturumların bu oranı hekim, kalanı hasta
+    private static final double DENTIST_SHARE = 0.2;
+    private static final int SLOTS_PER_DAY = 16;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void runTrafficMix() throws Exception {
+        ClinicDataGenerator generator = new ClinicDataGenerator(jdbc, passwordEncoder);
+        ClinicDataGenerator.Scale scale = ClinicDataGenerator.Scale.fromSystemProperties();
+        if (Boolean.getBoolean("load.regenerate") || !generator.exists(scale)) {
+            System.out.println("seed: " + scale);
+            generator.generate(scale);
+        }
+
+        try {
+            LoadClient client = new LoadClient("http://localhost:" + port);
+            List<Long> treatmentIds = generator.treatmentIds();
+            Booking booking = new Booking(generator.firstFreeBookingDay(), generator.treatmentId(30), System.nanoTime());
+            int dentistCount = (int) Math.max(1, Math.round(SESSIONS * DENTIST_SHARE));
+
+            List<User> users = new ArrayList<>();
+            List<Map<String, Object>> dentists = generator.dentistSessions(Math.max(dentistCount, 50));
+
+            for (Map<String, Object> d : dentists.subList(0, Math.min(dentistCount, dentists.size()))) {
+                String session = client.login((String) d.get("email"), ClinicDataGenerator.PASSWORD);
+                users.add(r -> dentistStep(client, session, r));
+            }
+            for (Map<String, Object> p : generator.patientSessions(SESSIONS - dentistCount)) {
+                String session = client.login((String) p.get("email"), ClinicDataGenerator.PASSWORD);
+                long invoiceId = ((Number) p.get("invoice_id")).longValue();
+                users.add(r -> patientStep(client, session, invoiceId, dentists, treatmentIds, booking, r));
+            }
+
+            System.out.printf("sessions: %d, warmup %ds, measure %ds%n", users.size(), WARMUP_SECONDS, DURATION_SECONDS);
+            // Isınma ölçümleri atılır
+            run(users, WARMUP_SECONDS);
+            List<LatencyRecorder> recorders = new ArrayList<>();
+            long elapsed = run(users, DURATION_SECONDS, recorders);
+
+            System.out.println();
+            LatencyRecorder.report(recorders, elapsed).forEach(System.out::println);
+        } finally {
+            if (Boolean.getBoolean("load.cleanup")) {
+                generator.cleanup();
+            }
+        }
+    }
+
+    private static void run(List<User> users, int seconds) throws InterruptedException {
+        run(users, seconds, new ArrayList<>());
+    }
+
+    // Her oturum kendi thread'inde ve kendi recorder'ıyla süre dolana kadar adım atar; eşzamanlılık = oturum sayısı
+    private static long run(List<User> users, int seconds, List<LatencyRecorder> recorders) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(users.size());
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        for (User user : users) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            recorders.add(recorder);
+            pool.submit(() -> {
+                start.await();
+                while (System.nanoTime() < deadline) {
+                    user.step(recorder);
+                }
+                return null;
+            });
+        }
+
+        long t0 = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(seconds + 120L, TimeUnit.SECONDS));
+        return System.nanoTime() - t0;
+    }
+
+    // Hekim: panelin %70'i filtresiz, %30'u hasta adı aramasıyla
+    private static void dentistStep(LoadClient client, String session, LatencyRecorder r) {
+        if (ThreadLocalRandom.current().nextInt(100) < 70) {
+            call(r, "GET /dentist/home", () -> client.get(session, "/dentist/home"));
+        } else {
+            call(r, "GET /dentist/home?name", () -> client.get(session, "/dentist/home?patientName=kay"));
+        }
+    }
+
+    // Hasta: panel %45, randevu formu %20, randevu POST %10, fatura %15, ödeme POST %10
+    private static void patientStep(LoadClient client, String session, long invoiceId,
+                                    List<Map<String, Object>> dentists, List<Long> treatmentIds,
+                                    Booking booking, LatencyRecorder r) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt(100);
+        if (roll < 45) {
+            call(r, "GET /patient/home", () -> client.get(session, "/patient/home"));
+        } else if (roll < 65) {
+            Object dentistId = dentists.get(random.nextInt(dentists.size())).get("dentist_id");
+            long treatmentId = treatmentIds.get(random.nextInt(treatmentIds.size()));
+            LocalDate date = LocalDate.now().plusDays(1 + random.nextInt(30));
+            call(r, "GET booking form", () -> client.get(session,
+                    "/patient/appointments/new?dentistId=" + dentistId + "&treatmentId=" + treatmentId + "&date=" + date));
+        } else if (roll < 75) {
+            // Sıra numarası hekim ve slotlara dağıtılır; aynı slot iki kez istenmez
+            int n = booking.seq.getAndIncrement();
+            Object dentistId = dentists.get(n % dentists.size()).get("dentist_id");
+            int slot = n / dentists.size();
+            LocalDateTime at = booking.firstDay.plusDays(slot / SLOTS_PER_DAY)
+                    .atTime(9, 0)
+                    .plusMinutes((long) (slot % SLOTS_PER_DAY) * 30);
+            call(r, "POST /patient/appointments", () -> client.post(session, "/patient/appointments", Map.of(
+                    "dentistId", String.valueOf(dentistId),
+                    "treatmentId", String.valueOf(booking.treatmentId),
+                    "appointmentDatetime", at.toString(),
+                    "idempotencyKey", "loadgen-book-" + booking.runId + "-" + n)));
+        } else if (roll < 90) {
+            call(r, "GET invoice", () -> client.get(session, "/patient/invoices/" + invoiceId));
+        } else {
+            call(r, "POST invoice pay", () -> client.post(session, "/patient/invoices/" + invoiceId + "/pay", Map.of(
+                    "amount", "10,00",
+                    "method", "CASH",
+                    "idempotencyKey", "loadgen-pay-" + random.nextLong())));
+        }
+    }
+
+    // Yeni randevular önceki çalıştırmaların bıraktığı son günden sonraya, sırayla ve çakışmasız yazılır
+    private static final class Booking {
+
+        private final LocalDate firstDay;
+        private final long treatmentId;
+        private final long runId;
+        private final AtomicInteger seq = new AtomicInteger();
+
+        Booking(LocalDate firstDay, long treatmentId, long runId) {
+            this.firstDay = firstDay;
+            this.treatmentId = treatmentId;
+            this.runId = runId;
+        }
+    }
+
+    private interface User {
+        void step(LatencyRecorder recorder);
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        int send() throws Exception;
+    }
+
+    // 2xx ve 3xx başarı; 4xx/5xx ve bağlantı hataları errors sütununa yazılır
+    private static void call(LatencyRecorder r, String endpoint, Call call) {
+        long t0 = System.nanoTime();
+        int status;
+        try {
+            status = call.send();
+        } catch (Exception e) {
+            status = -1;
+        }
+        r.record(endpoint, System.nanoTime() - t0, status >= 200 && status < 400);
+    }
+}
@@ -0,0 +1,78 @@
+package com.ece.dental_clinic.load;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Uç bazında gecikme örnekleri. Her worker kendi örneğini tutar (kilitsiz, boxing yok); sonuçlar sonda birleştirilir.
+public final class LatencyRecorder {
+
+    private final Map<String, Samples> byEndpoint = new LinkedHashMap<>();
+
+    public void record(String endpoint, long nanos, boolean ok) {
+        byEndpoint.computeIfAbsent(endpoint, k -> new Samples()).add(nanos, ok);
+    }
+
+    public static List<String> report(List<LatencyRecorder> recorders, long elapsedNanos) {
+        Map<String, Samples> merged = new LinkedHashMap<>();
+        for (LatencyRecorder r : recorders) {
+            r.byEndpoint.forEach((endpoint, s) -> merged.computeIfAbsent(endpoint, k -> new Samples()).addAll(s));
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add(header());
+        merged.forEach((endpoint, s) -> lines.add(s.format(endpoint, elapsedNanos)));
+        return lines;
+    }
+
+    public static String header() {
+        return String.format("%-22s %10s %10s %10s %10s %10s %8s",
+                "endpoint", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "errors");
+    }
+
+    private static final class Samples {
+
+        private long[] nanos = new long[1024];
+        private int size;
+        private int errors;
+
+        void add(long value, boolean ok) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            if (size + other.size > nanos.length) {
+                nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, size + other.size));
+            }
+            System.arraycopy(other.nanos, 0, nanos, size, other.size);
+            size += other.size;
+            errors += other.errors;
+        }
+
+        String format(String endpoint, long elapsedNanos) {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            return String.format("%-22s %10d %10.1f %10.2f %10.2f %10.2f %8d",
+                    endpoint, size,
+                    size * 1_000_000_000.0 / elapsedNanos,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    errors);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int i = (int) Math.ceil(sorted.length * p) - 1;
+            return sorted[Math.max(i, 0)] / 1_000_000.0;
+        }
+    }
+}
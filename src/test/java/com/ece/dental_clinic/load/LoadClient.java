@@ -0,0 +1,73 @@
+package com.ece.dental_clinic.load;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Form login + JSESSIONID ile oturum; yönlendirmeler takip edilmez, böylece POST'ların 302'si başarı olarak okunur.
+// Tek HttpClient tüm oturumlar arasında paylaşılır, oturum Cookie başlığıyla taşınır.
+public final class LoadClient {
+
+    private final String baseUrl;
+    private final HttpClient http = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    public LoadClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public String login(String email, String password) throws Exception {
+        HttpResponse<Void> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form(Map.of("username", email, "password", password))))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        String location = response.headers().firstValue("Location").orElse("");
+        if (location.contains("error")) {
+            throw new IllegalStateException("Giriş başarısız: " + email);
+        }
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(c -> c.startsWith("JSESSIONID="))
+                .map(c -> c.substring(0, c.indexOf(';')))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Oturum çerezi yok: " + email));
+    }
+
+    public int get(String session, String path) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .header("Cookie", session)
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    public int post(String session, String path, Map<String, String> fields) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .header("Cookie", session)
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form(fields)))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static String form(Map<String, String> fields) {
+        StringBuilder sb = new StringBuilder();
+        new TreeMap<>(fields).forEach((k, v) -> {
+            if (!sb.isEmpty()) {
+                sb.append('&');
+            }
+            sb.append(URLEncoder.encode(k, StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(URLEncoder.encode(v, StandardCharsets.UTF_8));
+        });
+        return sb.toString();
+    }
+}
@@ -0,0 +1,128 @@
+package com.ece.dental_clinic.repository;
+
+import com.ece.dental_clinic.dto.SeekCursor;
+import com.ece.dental_clinic.dto.SeekRequest;
+import com.ece.dental_clinic.enums.AppointmentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Dashboard sorgularının sık kullanılan filtre kombinasyonlarında index ile çalıştığını EXPLAIN çıktısından doğrular.
+// Boş tabloda istatistik olmadığı için planner rastgele bir index seçebilir; test kendi transaction'ında gerçekçi
+// dağılımda veri yazıp ANALYZE eder (ikisi de geri alınır). Seq scan yine kapalı: index kullanılamıyorsa planner onu seçer.
+@SpringBootTest
+@Transactional
+class AppointmentDashboardQueryPlanTest {
+
+    private static final String PATIENT_INDEX = "ix_appointment_patient_datetime";
+    private static final String DENTIST_INDEX = "ix_appointment_dentist_datetime";
+
+    @Autowired
+    private AppointmentDashboardRepository repository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private long dentistId;
+    private long patientId;
+
+    @BeforeEach
+    void setUp() {
+        String tag = "plan-" + UUID.randomUUID();
+
+        // 20 hekim, 200 hasta, 20.000 randevu; %10'u arşivlenmiş, durumlar karışık
+        long clinicId = jdbc.queryForObject("insert into clinic (name) values (?) returning id", Long.class, tag);
+        jdbc.update("""
+                insert into user_account (email, password_hash, role, is_active, created_at)
+                select ? || '-' || g || '@example.com', 'x', case when g <= 20 then 'DENTIST' else 'PATIENT' end, true, now()
+                from generate_series(1, 220) g
+                """, tag);
+        jdbc.update("""
+                insert into dentist (user_account_id, clinic_id, first_name, last_name)
+                select id, ?, 'Plan', ? from user_account where email like ? and role = 'DENTIST'
+                """, clinicId, tag, tag + "-%");
+        jdbc.update("""
+                insert into patient (user_account_id, first_name, last_name)
+                select id, 'Plan', ? from user_account where email like ? and role = 'PATIENT'
+                """, tag, tag + "-%");
+        jdbc.update("""
+                insert into appointment (patient_id, dentist_id, clinic_id, appointment_datetime, status, created_at, archived_at)
+                select p.ids[1 + g % array_length(p.ids, 1)],
+                       d.ids[1 + g % array_length(d.ids, 1)],
+                       ?,
+                       now() - make_interval(hours => g),
+                       (array['SCHEDULED', 'CONFIRMED', 'COMPLETED', 'CANCELLED', 'EXPIRED'])[1 + g % 5],
+                       now(),
+                       case when g % 10 = 0 then now() end
+                from generate_series(1, 20000) g,
+                     (select array_agg(id) as ids from patient where last_name = ?) p,
+                     (select array_agg(id) as ids from dentist where last_name = ?) d
+                """, clinicId, tag, tag);
+        jdbc.execute("analyze appointment");
+
+        dentistId = jdbc.queryForObject("select min(id) from dentist where last_name = ?", Long.class, tag);
+        patientId = jdbc.queryForObject("select min(id) from patient where last_name = ?", Long.class, tag);
+
+        // Index'ler V2__hot_query_indexes.sql ile gelir; ayar transaction sonunda geri alınır
+        jdbc.execute("set local enable_seqscan = off");
+    }
+
+    @Test
+    void patientQueriesUseIndex() {
+        LocalDateTime from = LocalDateTime.now().minusDays(30);
+        SeekRequest firstPage = SeekRequest.of(null, null, 10);
+        SeekRequest nextPage = SeekRequest.of(new SeekCursor(LocalDateTime.now(), 1000L).encode(), null, 10);
+
+        assertUsesIndex(repository.patientQuery(patientId, null, null, null, null, firstPage), PATIENT_INDEX);
+        assertUsesIndex(repository.patientQuery(patientId, from, null, null, null, firstPage), PATIENT_INDEX);
+        // Hasta + hekim filtresinde iki index de seçici; planner hangisini seçerse seçsin seq scan olmamalı
+        assertUsesIndex(repository.patientQuery(patientId, from, null, AppointmentStatus.SCHEDULED, dentistId, firstPage),
+                PATIENT_INDEX, DENTIST_INDEX);
+        assertUsesIndex(repository.patientQuery(patientId, from, null, null, null, nextPage), PATIENT_INDEX);
+    }
+
+    @Test
+    void dentistQueriesUseIndex() {
+        LocalDateTime from = LocalDateTime.now().minusDays(30);
+        SeekRequest firstPage = SeekRequest.of(null, null, 10);
+        SeekRequest prevPage = SeekRequest.of(null, new SeekCursor(LocalDateTime.now(), 1000L).encode(), 10);
+
+        assertUsesIndex(repository.dentistQuery(dentistId, null, null, null, null, firstPage), DENTIST_INDEX);
+        assertUsesIndex(repository.dentistQuery(dentistId, from, null, "CONFIRMED", null, firstPage), DENTIST_INDEX);
+        assertUsesIndex(repository.dentistQuery(dentistId, from, null, null, new long[]{patientId, patientId + 1, patientId + 2}, firstPage),
+                DENTIST_INDEX, PATIENT_INDEX);
+        assertUsesIndex(repository.dentistQuery(dentistId, from, null, null, null, prevPage), DENTIST_INDEX);
+    }
+
+    @Test
+    void unsetFiltersAreNotRendered() {
+        String sql = repository.patientQuery(patientId, null, null, null, null, SeekRequest.of(null, null, 10)).sql();
+
+        assertFalse(sql.contains("is null or"));
+        assertFalse(sql.contains(":fromDate"));
+        assertFalse(sql.contains(":dentistId"));
+    }
+
+    private void assertUsesIndex(SqlQueryBuilder query, String... indexes) {
+        List<String> plan = namedJdbc.query("explain " + query.sql(), query.params(), (rs, rowNum) -> rs.getString(1));
+        String text = String.join("\n", plan);
+
+        assertFalse(text.contains("Seq Scan on appointment a"), text);
+        assertTrue(Arrays.stream(indexes).anyMatch(text::contains), text);
+    }
+}
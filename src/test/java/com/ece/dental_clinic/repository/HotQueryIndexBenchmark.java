@@ -0,0 +1,215 @@
+package com.ece.dental_clinic.repository;
+
+import com.ece.dental_clinic.dto.SeekRequest;
+import com.ece.dental_clinic.enums.AppointmentStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongConsumer;
+
+// Büyük bir veri setini seed edip sık sorguların index'li ve index'siz gecikmesini raporlar.
+// İsim *Test ile bitmediği için normal build'de çalışmaz: mvn test -Dtest=HotQueryIndexBenchmark
+// Tüm veri ve DROP INDEX tek transaction içinde yapılır ve sonunda geri alınır.
+@SpringBootTest
+class HotQueryIndexBenchmark {
+
+    private static final int PATIENTS = 100_000;
+    private static final int DENTISTS = 200;
+    private static final int APPOINTMENTS = 1_000_000;
+
+    private static final int WARMUP = 5;
+    private static final int RUNS = 50;
+
+    private static final List<String> INDEXES = List.of(
+            "ix_appointment_dentist_datetime",
+            "ix_appointment_patient_datetime",
+            "ix_appointment_open_datetime",
+            "ix_appointment_treatment_appointment",
+            "ix_invoice_appointment",
+            "ix_payment_invoice_success"
+    );
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AppointmentDashboardRepository dashboardRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Test
+    void reportLatencyWithAndWithoutIndexes() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            seed();
+            jdbc.execute("analyze");
+
+            long[] patientIds = ids("select id from patient where last_name = 'Bench' limit 1000");
+            long[] dentistIds = ids("select d.id from dentist d join user_account u on u.id = d.user_account_id"
+                    + " where u.email like 'bench-d%'");
+            long[] appointmentIds = ids("select appointment_id from invoice order by random() limit 1000");
+            long[] invoiceIds = ids("select id from invoice order by random() limit 1000");
+
+            Map<String, LongConsumer> queries = queries(patientIds, dentistIds, appointmentIds, invoiceIds);
+
+            Map<String, double[]> after = measure(queries);
+
+            for (String index : INDEXES) {
+                jdbc.execute("drop index if exists " + index);
+            }
+            jdbc.execute("analyze");
+
+            Map<String, double[]> before = measure(queries);
+
+            System.out.printf("%n%-28s %14s %14s %14s %14s%n", "query", "before avg ms", "before p95 ms", "after avg ms", "after p95 ms");
+            for (String name : queries.keySet()) {
+                System.out.printf("%-28s %14.3f %14.3f %14.3f %14.3f%n",
+                        name, before.get(name)[0], before.get(name)[1], after.get(name)[0], after.get(name)[1]);
+            }
+
+            status.setRollbackOnly();
+        });
+    }
+
+    private Map<String, LongConsumer> queries(long[] patientIds, long[] dentistIds, long[] appointmentIds, long[] invoiceIds) {
+        LocalDateTime from = LocalDateTime.now().minusDays(30);
+        LocalDate day = LocalDate.now().plusDays(3);
+
+        Map<String, LongConsumer> queries = new LinkedHashMap<>();
+        queries.put("dentist dashboard", i -> dashboardRepository.seekDentistRows(
+                pick(dentistIds, i), from, null, null, null, SeekRequest.of(null, null, 10)));
+        queries.put("patient dashboard", i -> dashboardRepository.seekPatientRows(
+                pick(patientIds, i), null, null, null, null, SeekRequest.of(null, null, 10)));
+        queries.put("dentist busy intervals", i -> appointmentRepository.findBusyIntervals(
+                pick(dentistIds, i), day.atStartOfDay(), day.plusDays(1).atStartOfDay(), AppointmentStatus.FINAL_STATUSES));
+        queries.put("expirable appointments", i -> appointmentRepository.findExpirable(
+                LocalDateTime.now(), AppointmentStatus.FINAL_STATUSES, PageRequest.of(0, 500)));
+        queries.put("invoice by appointment", i -> invoiceRepository.findByAppointment_Id(pick(appointmentIds, i)));
+        queries.put("payment sum by invoice", i -> paymentRepository.sumByInvoiceId(pick(invoiceIds, i)));
+        return queries;
+    }
+
+    // [avg, p95] milisaniye
+    private static Map<String, double[]> measure(Map<String, LongConsumer> queries) {
+        Map<String, double[]> result = new LinkedHashMap<>();
+        queries.forEach((name, query) -> {
+            for (int i = 0; i < WARMUP; i++) {
+                query.accept(i);
+            }
+            double[] samples = new double[RUNS];
+            for (int i = 0; i < RUNS; i++) {
+                long t0 = System.nanoTime();
+                query.accept(ThreadLocalRandom.current().nextLong(Integer.MAX_VALUE));
+                samples[i] = (System.nanoTime() - t0) / 1_000_000.0;
+            }
+            Arrays.sort(samples);
+            result.put(name, new double[]{
+                    Arrays.stream(samples).average().orElse(0),
+                    samples[(int) Math.ceil(RUNS * 0.95) - 1]
+            });
+        });
+        return result;
+    }
+
+    private void seed() {
+        long clinicId = jdbc.queryForObject(
+                "insert into clinic (name) values ('Bench Klinik') returning id", Long.class);
+
+        jdbc.update("""
+                insert into user_account (email, password_hash, role, is_active, created_at)
+                select 'bench-p' || g || '@example.com', 'x', 'PATIENT', true, now()
+                from generate_series(1, ?) g
+                """, PATIENTS);
+        jdbc.update("""
+                insert into patient (user_account_id, first_name, last_name)
+                select u.id, 'Hasta' || u.id, 'Bench'
+                from user_account u
+                where u.email like 'bench-p%'
+                """);
+
+        jdbc.update("""
+                insert into user_account (email, password_hash, role, is_active, created_at)
+                select 'bench-d' || g || '@example.com', 'x', 'DENTIST', true, now()
+                from generate_series(1, ?) g
+                """, DENTISTS);
+        jdbc.update("""
+                insert into dentist (user_account_id, clinic_id, first_name, last_name)
+                select u.id, ?, 'Doktor' || u.id, 'Bench'
+                from user_account u
+                where u.email like 'bench-d%'
+                """, clinicId);
+
+        // Son iki yıl + önümüzdeki iki ay; geçmiştekilerin çoğu final, bir kısmı arşivli
+        jdbc.update("""
+                with p as (select array_agg(id) ids, count(*) n from patient where last_name = 'Bench'),
+                     d as (select array_agg(d.id) ids, count(*) n from dentist d
+                           join user_account u on u.id = d.user_account_id where u.email like 'bench-d%'),
+                     s as (
+                         select g,
+                                date_trunc('hour', now()) - interval '730 days'
+                                    + (floor(random() * 790 * 48) * interval '30 minutes') as at
+                         from generate_series(1, ?) g
+                     )
+                insert into appointment (patient_id, dentist_id, clinic_id, appointment_datetime, status, created_at, archived_at)
+                select p.ids[1 + (s.g * 7919) % p.n],
+                       d.ids[1 + s.g % d.n],
+                       ?,
+                       s.at,
+                       case
+                           when s.at >= now() then 'SCHEDULED'
+                           when s.g % 20 = 0 then 'SCHEDULED'
+                           when s.g % 7 = 0 then 'CANCELLED'
+                           else 'COMPLETED'
+                       end,
+                       s.at - interval '7 days',
+                       case when s.at < now() and s.g % 5 = 0 then s.at + interval '30 days' end
+                from s, p, d
+                """, APPOINTMENTS, clinicId);
+
+        jdbc.update("""
+                insert into invoice (appointment_id, total_amount, discount_amount, final_amount, status, created_at)
+                select a.id, 1000, 0, 1000, case when a.id % 3 = 0 then 'UNPAID' else 'PAID' end, a.appointment_datetime
+                from appointment a
+                join dentist d on d.id = a.dentist_id and d.last_name = 'Bench'
+                where a.status = 'COMPLETED'
+                """);
+        jdbc.update("""
+                insert into payment (invoice_id, amount, payment_datetime, payment_method, payment_status)
+                select i.id, 500, i.created_at, 'CASH', case when i.id % 10 = 0 then 'FAILED' else 'SUCCESS' end
+                from invoice i
+                join appointment a on a.id = i.appointment_id
+                join dentist d on d.id = a.dentist_id and d.last_name = 'Bench'
+                cross join generate_series(1, 2)
+                """);
+    }
+
+    private long[] ids(String sql) {
+        return jdbc.queryForList(sql, Long.class).stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long pick(long[] ids, long i) {
+        return ids[(int) (i % ids.length)];
+    }
+}
@@ -0,0 +1,223 @@
+package com.ece.dental_clinic.service;
+
+import com.ece.dental_clinic.entity.Clinic;
+import com.ece.dental_clinic.entity.Dentist;
+import com.ece.dental_clinic.entity.Patient;
+import com.ece.dental_clinic.entity.Treatment;
+import com.ece.dental_clinic.repository.AppointmentRepository;
+import com.ece.dental_clinic.repository.AppointmentTreatmentRepository;
+import com.ece.dental_clinic.repository.ClinicRepository;
+import com.ece.dental_clinic.repository.DentistRepository;
+import com.ece.dental_clinic.repository.PatientRepository;
+import com.ece.dental_clinic.repository.TreatmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Aynı hekim/güne eşzamanlı rezervasyonlar: DB'de hiçbir zaman çakışan iki randevu kalmamalı.
+// İki servis örneği iki uygulama instance'ı gibi çalışır; kilit şeritleri ve slot cache'leri ayrı olduğu için
+// aralarındaki yarışı yalnızca pg_advisory_xact_lock + DB çakışma kontrolü engelleyebilir.
+@SpringBootTest
+class AppointmentBookingConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS = 5000;
+    private static final int DENTISTS = 8;
+    private static final int DAYS = 10;
+
+    @Autowired
+    private AppointmentBookingService bookingService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AppointmentTreatmentRepository appointmentTreatmentRepository;
+
+    @Autowired
+    private AppointmentStatusCounters statusCounters;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DentistRepository dentistRepository;
+
+    @Autowired
+    private ClinicRepository clinicRepository;
+
+    @Autowired
+    private TreatmentRepository treatmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private String tag;
+    private Clinic clinic;
+    private Patient patient;
+    private final List<Dentist> dentists = new ArrayList<>();
+    private Treatment shortTreatment;
+    private Treatment longTreatment;
+
+    @BeforeEach
+    void setUp() {
+        tag = "book-" + UUID.randomUUID();
+
+        long clinicId = jdbc.queryForObject(
+                "insert into clinic (name) values (?) returning id", Long.class, tag);
+        long patientUser = jdbc.queryForObject("""
+                insert into user_account (email, password_hash, role, is_active, created_at)
+                values (?, 'x', 'PATIENT', true, now()) returning id
+                """, Long.class, tag + "-p@example.com");
+        long patientId = jdbc.queryForObject(
+                "insert into patient (user_account_id, first_name, last_name) values (?, 'Test', ?) returning id",
+                Long.class, patientUser, tag);
+
+        for (int i = 0; i < DENTISTS; i++) {
+            long dentistUser = jdbc.queryForObject("""
+                    insert into user_account (email, password_hash, role, is_active, created_at)
+                    values (?, 'x', 'DENTIST', true, now()) returning id
+                    """, Long.class, tag + "-d" + i + "@example.com");
+            long dentistId = jdbc.queryForObject(
+                    "insert into dentist (user_account_id, clinic_id, first_name, last_name) values (?, ?, 'Test', ?) returning id",
+                    Long.class, dentistUser, clinicId, tag);
+            dentists.add(dentistRepository.findById(dentistId).orElseThrow());
+        }
+
+        long shortId = jdbc.queryForObject("""
+                insert into treatment (name, default_price, default_duration_minutes, is_active)
+                values (?, 100, 30, true) returning id
+                """, Long.class, tag + "-30");
+        long longId = jdbc.queryForObject("""
+                insert into treatment (name, default_price, default_duration_minutes, is_active)
+                values (?, 100, 60, true) returning id
+                """, Long.class, tag + "-60");
+
+        clinic = clinicRepository.findById(clinicId).orElseThrow();
+        patient = patientRepository.findById(patientId).orElseThrow();
+        shortTreatment = treatmentRepository.findById(shortId).orElseThrow();
+        longTreatment = treatmentRepository.findById(longId).orElseThrow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("""
+                delete from appointment_treatment
+                where appointment_id in (select id from appointment where clinic_id in (select id from clinic where name = ?))
+                """, tag);
+        jdbc.update("delete from appointment where clinic_id in (select id from clinic where name = ?)", tag);
+        jdbc.update("delete from treatment where name like ?", tag + "%");
+        jdbc.update("delete from patient where last_name = ?", tag);
+        jdbc.update("delete from dentist where last_name = ?", tag);
+        jdbc.update("delete from clinic where name = ?", tag);
+        jdbc.update("delete from user_account where email like ?", tag + "%");
+    }
+
+    @Test
+    void concurrentBookingsNeverOverlapInDatabase() throws Exception {
+        // İkinci "instance": aynı DB, ayrı kilit şeritleri ve ayrı slot cache'i
+        AppointmentBookingService otherNode = new AppointmentBookingService(
+                appointmentRepository,
+                appointmentTreatmentRepository,
+                new SlotAvailabilityIndex(appointmentRepository),
+                statusCounters,
+                jdbc,
+                transactionManager,
+                64
+        );
+        List<AppointmentBookingService> nodes = List.of(bookingService, otherNode);
+
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        for (int i = 0; i < ATTEMPTS; i++) {
+            pool.submit(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                AppointmentBookingService node = nodes.get(rnd.nextInt(nodes.size()));
+                Dentist dentist = dentists.get(rnd.nextInt(DENTISTS));
+                LocalDate day = LocalDate.now().plusDays(1 + rnd.nextInt(DAYS));
+                LocalDateTime at = day.atTime(SlotAvailabilityIndex.WORK_START).plusMinutes(30L * rnd.nextInt(14));
+                Treatment treatment = rnd.nextBoolean() ? shortTreatment : longTreatment;
+
+                try {
+                    start.await();
+                    node.book(patient, dentist, clinic, treatment, at);
+                    booked.incrementAndGet();
+                } catch (RuntimeException e) {
+                    rejected.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.MINUTES));
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+        String throughput = String.format("bookings: %d booked, %d rejected in %.2fs (%.1f bookings/s, %.1f attempts/s)",
+                booked.get(), rejected.get(), seconds, booked.get() / seconds, ATTEMPTS / seconds);
+        System.out.println(throughput);
+
+        assertEquals(ATTEMPTS, booked.get() + rejected.get(), throughput);
+        assertTrue(booked.get() > 0, throughput);
+
+        // Her başarılı rezervasyon tam olarak bir randevu satırı
+        Integer rows = jdbc.queryForObject(
+                "select count(*) from appointment where clinic_id = ?", Integer.class, clinic.getId());
+        assertEquals(booked.get(), rows);
+
+        // Aynı hekim + başlangıç için tek satır
+        Integer sameSlot = jdbc.queryForObject("""
+                select count(*) from (
+                    select dentist_id, appointment_datetime from appointment
+                    where clinic_id = ?
+                    group by dentist_id, appointment_datetime
+                    having count(*) > 1
+                ) d
+                """, Integer.class, clinic.getId());
+        assertEquals(0, sameSlot);
+
+        // Süreleriyle birlikte örtüşen randevu çifti yok
+        Integer overlapping = jdbc.queryForObject("""
+                with a as (
+                    select ap.id, ap.dentist_id, ap.appointment_datetime as s,
+                           ap.appointment_datetime + make_interval(mins => sum(t.default_duration_minutes)::int) as e
+                    from appointment ap
+                    join appointment_treatment at on at.appointment_id = ap.id
+                    join treatment t on t.id = at.treatment_id
+                    where ap.clinic_id = ?
+                    group by ap.id
+                )
+                select count(*) from a x join a y
+                  on x.dentist_id = y.dentist_id and x.id < y.id and x.s < y.e and y.s < x.e
+                """, Integer.class, clinic.getId());
+        assertEquals(0, overlapping);
+    }
+}
@@ -0,0 +1,151 @@
+package com.ece.dental_clinic.service;
+
+import com.ece.dental_clinic.dto.ImportReport;
+import com.ece.dental_clinic.enums.ImportKind;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Toplu aktarımın yetki ve bütünlük sınırları: klinik dosyadan alınmaz, dosyadan şifre kabul edilmez,
+// açık randevular çakışma kontrolünden geçer ve aktarılan geçmiş faturalanmaz.
+@SpringBootTest
+class BulkImportServiceTest {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private InvoiceGenerationService invoiceGenerationService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private String tag;
+    private long clinicId;
+    private long otherClinicId;
+    private long dentistId;
+    private final LocalDate day = LocalDate.now().plusDays(3);
+
+    @BeforeEach
+    void setUp() {
+        tag = "imp-" + UUID.randomUUID();
+
+        clinicId = jdbc.queryForObject("insert into clinic (name) values (?) returning id", Long.class, tag);
+        otherClinicId = jdbc.queryForObject("insert into clinic (name) values (?) returning id", Long.class, tag + "-other");
+        dentistId = dentist("d", clinicId);
+        dentist("o", otherClinicId);
+
+        long patientUser = jdbc.queryForObject("""
+                insert into user_account (email, password_hash, role, is_active, created_at)
+                values (?, 'x', 'PATIENT', true, now()) returning id
+                """, Long.class, tag + "-p@example.com");
+        long patientId = jdbc.queryForObject(
+                "insert into patient (user_account_id, first_name, last_name) values (?, 'Test', ?) returning id",
+                Long.class, patientUser, tag);
+
+        // Uygulamadan alınmış mevcut rezervasyon
+        jdbc.update("""
+                insert into appointment (patient_id, dentist_id, clinic_id, appointment_datetime, status, created_at)
+                values (?, ?, ?, ?, 'SCHEDULED', now())
+                """, patientId, dentistId, clinicId, day.atTime(11, 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("delete from invoice where appointment_id in (select id from appointment where clinic_id in (?, ?))",
+                clinicId, otherClinicId);
+        jdbc.update("delete from appointment where clinic_id in (?, ?)", clinicId, otherClinicId);
+        jdbc.update("delete from patient where last_name = ?", tag);
+        jdbc.update("delete from dentist where last_name = ?", tag);
+        jdbc.update("delete from clinic where id in (?, ?)", clinicId, otherClinicId);
+        jdbc.update("delete from user_account where email like ?", tag + "%");
+    }
+
+    @Test
+    void dentistsGoToCallerClinicAsInactiveAccounts() throws IOException {
+        ImportReport report = importCsv(ImportKind.DENTIST, """
+                email,first_name,last_name,clinic_id,password_hash
+                %s-n@example.com,Yeni,%s,%d,$2a$10$abcdefghijklmnopqrstuuJ3xQ0a7c5r5W1c1p1o7dQe8lF1pX2S
+                """.formatted(tag, tag, otherClinicId));
+
+        assertEquals(1, report.getImportedRows());
+        Map<String, Object> row = jdbc.queryForMap("""
+                select d.clinic_id, u.is_active, u.password_hash
+                from dentist d join user_account u on u.id = d.user_account_id
+                where u.email = ?
+                """, tag + "-n@example.com");
+        assertEquals(clinicId, ((Number) row.get("clinic_id")).longValue());
+        assertEquals(false, row.get("is_active"));
+        assertEquals("!", row.get("password_hash"));
+    }
+
+    @Test
+    void openAppointmentsAreCheckedForConflicts() throws IOException {
+        String at10 = day.atTime(10, 0).toString();
+        String at11 = day.atTime(11, 0).toString();
+        ImportReport report = importCsv(ImportKind.APPOINTMENT, """
+                patient_email,dentist_email,appointment_datetime,status
+                %1$s-p@example.com,%1$s-d@example.com,%2$s,SCHEDULED
+                %1$s-p@example.com,%1$s-d@example.com,%2$s,SCHEDULED
+                %1$s-p@example.com,%1$s-d@example.com,%3$s,SCHEDULED
+                %1$s-p@example.com,%1$s-o@example.com,%2$s,SCHEDULED
+                """.formatted(tag, at10, at11));
+
+        // Birinci satır kabul; dosya içi tekrar, mevcut rezervasyonla çakışan ve başka kliniğin hekimi reddedilir
+        assertEquals(4, report.getTotalRows());
+        assertEquals(1, report.getImportedRows());
+        assertEquals(3, report.getFailedRows());
+        Integer open = jdbc.queryForObject(
+                "select count(*) from appointment where dentist_id = ? and status = 'SCHEDULED'", Integer.class, dentistId);
+        assertEquals(2, open);
+    }
+
+    @Test
+    void importedHistoryIsNotInvoiced() throws IOException {
+        String past = LocalDate.now().minusDays(30).atTime(10, 0).toString();
+        ImportReport report = importCsv(ImportKind.APPOINTMENT, """
+                patient_email,dentist_email,appointment_datetime,status
+                %1$s-p@example.com,%1$s-d@example.com,%2$s,COMPLETED
+                """.formatted(tag, past));
+        assertEquals(1, report.getImportedRows());
+
+        Long appointmentId = jdbc.queryForObject(
+                "select id from appointment where dentist_id = ? and status = 'COMPLETED'", Long.class, dentistId);
+        assertTrue(jdbc.queryForObject("select billing_exempt from appointment where id = ?", Boolean.class, appointmentId));
+
+        invoiceGenerationService.generatePending();
+        assertFalse(invoiceGenerationService.generateFor(appointmentId));
+        Integer invoices = jdbc.queryForObject(
+                "select count(*) from invoice where appointment_id = ?", Integer.class, appointmentId);
+        assertEquals(0, invoices);
+    }
+
+    private long dentist(String suffix, long clinic) {
+        long user = jdbc.queryForObject("""
+                insert into user_account (email, password_hash, role, is_active, created_at)
+                values (?, 'x', 'DENTIST', true, now()) returning id
+                """, Long.class, tag + "-" + suffix + "@example.com");
+        return jdbc.queryForObject(
+                "insert into dentist (user_account_id, clinic_id, first_name, last_name) values (?, ?, 'Test', ?) returning id",
+                Long.class, user, clinic, tag);
+    }
+
+    private ImportReport importCsv(ImportKind kind, String csv) throws IOException {
+        return bulkImportService.importCsv(kind, clinicId,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+}
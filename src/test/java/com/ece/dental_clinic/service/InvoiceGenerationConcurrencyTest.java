@@ -0,0 +1,132 @@
+package com.ece.dental_clinic.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Gün sonu işi ile tamamlama anındaki üretim aynı randevular için yarışır: her randevuya tek fatura düşmeli
+// ve bildirilen "oluşturulan" toplamı gerçek satır sayısına eşit olmalı.
+@SpringBootTest
+class InvoiceGenerationConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int APPOINTMENTS = 200;
+
+    @Autowired
+    private InvoiceGenerationService invoiceGenerationService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private String tag;
+    private final List<Long> appointmentIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        tag = "inv-" + UUID.randomUUID();
+
+        long patientUser = jdbc.queryForObject("""
+                insert into user_account (email, password_hash, role, is_active, created_at)
+                values (?, 'x', 'PATIENT', true, now()) returning id
+                """, Long.class, tag + "-p@example.com");
+        long dentistUser = jdbc.queryForObject("""
+                insert into user_account (email, password_hash, role, is_active, created_at)
+                values (?, 'x', 'DENTIST', true, now()) returning id
+                """, Long.class, tag + "-d@example.com");
+        long clinicId = jdbc.queryForObject(
+                "insert into clinic (name) values (?) returning id", Long.class, tag);
+        long patientId = jdbc.queryForObject(
+                "insert into patient (user_account_id, first_name, last_name) values (?, 'Test', ?) returning id",
+                Long.class, patientUser, tag);
+        long dentistId = jdbc.queryForObject(
+                "insert into dentist (user_account_id, clinic_id, first_name, last_name) values (?, ?, 'Test', ?) returning id",
+                Long.class, dentistUser, clinicId, tag);
+
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            appointmentIds.add(jdbc.queryForObject("""
+                    insert into appointment (patient_id, dentist_id, clinic_id, appointment_datetime, status, created_at)
+                    values (?, ?, ?, now() - make_interval(mins => ?), 'COMPLETED', now()) returning id
+                    """, Long.class, patientId, dentistId, clinicId, 30 * (i + 1)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("""
+                delete from invoice
+                where appointment_id in (select id from appointment where clinic_id in (select id from clinic where name = ?))
+                """, tag);
+        jdbc.update("delete from appointment where clinic_id in (select id from clinic where name = ?)", tag);
+        jdbc.update("delete from patient where last_name = ?", tag);
+        jdbc.update("delete from dentist where last_name = ?", tag);
+        jdbc.update("delete from clinic where name = ?", tag);
+        jdbc.update("delete from user_account where email like ?", tag + "%");
+    }
+
+    @Test
+    void concurrentGenerationCreatesOneInvoicePerAppointment() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            boolean single = t % 2 == 1;
+            results.add(pool.submit(() -> {
+                start.await();
+                if (!single) {
+                    return invoiceGenerationService.generatePending();
+                }
+                // Tamamlama anındaki tekil yol, toplu işle aynı randevular üzerinde
+                int created = 0;
+                for (Long id : appointmentIds) {
+                    if (invoiceGenerationService.generateFor(id)) {
+                        created++;
+                    }
+                }
+                return created;
+            }));
+        }
+
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES));
+
+        Integer invoices = jdbc.queryForObject("""
+                select count(*) from invoice
+                where appointment_id in (select id from appointment where clinic_id in (select id from clinic where name = ?))
+                """, Integer.class, tag);
+        Integer duplicated = jdbc.queryForObject("""
+                select count(*) from (
+                    select appointment_id from invoice
+                    where appointment_id in (select id from appointment where clinic_id in (select id from clinic where name = ?))
+                    group by appointment_id
+                    having count(*) > 1
+                ) d
+                """, Integer.class, tag);
+
+        assertEquals(APPOINTMENTS, invoices);
+        assertEquals(0, duplicated);
+
+        // Başka testlerin fixture'ları da gün sonu işine girebilir; bu yüzden toplam en az randevu sayısı kadardır
+        int reported = 0;
+        for (Future<Integer> f : results) {
+            reported += f.get();
+        }
+        assertTrue(reported >= APPOINTMENTS);
+    }
+}
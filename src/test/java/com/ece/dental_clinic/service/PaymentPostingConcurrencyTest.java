@@ -0,0 +1,129 @@
+package com.ece.dental_clinic.service;
+
+import com.ece.dental_clinic.enums.PaymentMethod;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Aynı faturaya eşzamanlı çok sayıda ödeme: toplam hiçbir zaman fatura tutarını aşmamalı.
+// Thread'ler ayrı transaction kullandığı için fixture commit edilir ve test sonunda silinir.
+@SpringBootTest
+class PaymentPostingConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 25;
+    private static final BigDecimal INVOICE_TOTAL = new BigDecimal("1000.00");
+    private static final BigDecimal PAYMENT = new BigDecimal("30.00");
+
+    @Autowired
+    private PaymentPostingService paymentPostingService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private String tag;
+    private long invoiceId;
+
+    @BeforeEach
+    void setUp() {
+        tag = "pay-" + UUID.randomUUID();
+
+        long patientUser = jdbc.queryForObject("""
+                insert into user_account (email, password_hash, role, is_active, created_at)
+                values (?, 'x', 'PATIENT', true, now()) returning id
+                """, Long.class, tag + "-p@example.com");
+        long dentistUser = jdbc.queryForObject("""
+                insert into user_account (email, password_hash, role, is_active, created_at)
+                values (?, 'x', 'DENTIST', true, now()) returning id
+                """, Long.class, tag + "-d@example.com");
+        long clinicId = jdbc.queryForObject(
+                "insert into clinic (name) values (?) returning id", Long.class, tag);
+        long patientId = jdbc.queryForObject(
+                "insert into patient (user_account_id, first_name, last_name) values (?, 'Test', ?) returning id",
+                Long.class, patientUser, tag);
+        long dentistId = jdbc.queryForObject(
+                "insert into dentist (user_account_id, clinic_id, first_name, last_name) values (?, ?, 'Test', ?) returning id",
+                Long.class, dentistUser, clinicId, tag);
+        long appointmentId = jdbc.queryForObject("""
+                insert into appointment (patient_id, dentist_id, clinic_id, appointment_datetime, status, created_at)
+                values (?, ?, ?, now() - interval '1 day', 'COMPLETED', now()) returning id
+                """, Long.class, patientId, dentistId, clinicId);
+        invoiceId = jdbc.queryForObject("""
+                insert into invoice (appointment_id, total_amount, discount_amount, final_amount, status, created_at)
+                values (?, ?, 0, ?, 'UNPAID', now()) returning id
+                """, Long.class, appointmentId, INVOICE_TOTAL, INVOICE_TOTAL);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("delete from payment where invoice_id = ?", invoiceId);
+        jdbc.update("delete from invoice where id = ?", invoiceId);
+        jdbc.update("delete from revenue_daily where clinic_id in (select id from clinic where name = ?)", tag);
+        jdbc.update("delete from appointment where clinic_id in (select id from clinic where name = ?)", tag);
+        jdbc.update("delete from patient where last_name = ?", tag);
+        jdbc.update("delete from dentist where last_name = ?", tag);
+        jdbc.update("delete from clinic where name = ?", tag);
+        jdbc.update("delete from user_account where email like ?", tag + "%");
+    }
+
+    @Test
+    void concurrentPaymentsNeverOverpay() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        for (int t = 0; t < THREADS; t++) {
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    if (paymentPostingService.post(invoiceId, PAYMENT, PaymentMethod.CASH).isPresent()) {
+                        accepted.incrementAndGet();
+                    } else {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        long t0 = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES));
+        double seconds = (System.nanoTime() - t0) / 1_000_000_000.0;
+
+        Map<String, Object> invoice = jdbc.queryForMap(
+                "select paid_amount, status from invoice where id = ?", invoiceId);
+        BigDecimal paymentSum = jdbc.queryForObject(
+                "select coalesce(sum(amount), 0) from payment where invoice_id = ? and payment_status = 'SUCCESS'",
+                BigDecimal.class, invoiceId);
+
+        // 1000 / 30 -> en fazla 33 ödeme sığar
+        int expected = INVOICE_TOTAL.divideToIntegralValue(PAYMENT).intValue();
+        BigDecimal expectedPaid = PAYMENT.multiply(BigDecimal.valueOf(expected));
+
+        System.out.printf("payments: %d accepted, %d rejected in %.2fs%n", accepted.get(), rejected.get(), seconds);
+
+        assertEquals(expected, accepted.get());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - expected, rejected.get());
+        assertEquals(0, expectedPaid.compareTo((BigDecimal) invoice.get("paid_amount")));
+        assertEquals(0, expectedPaid.compareTo(paymentSum));
+        assertEquals("PARTIALLY_PAID", invoice.get("status"));
+    }
+}
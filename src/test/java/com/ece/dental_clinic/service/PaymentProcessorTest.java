@@ -0,0 +1,197 @@
+package com.ece.dental_clinic.service;
+
+import com.ece.dental_clinic.repository.InvoiceRepository;
+import com.ece.dental_clinic.repository.PaymentRepository;
+import com.ece.dental_clinic.repository.RevenueRollupRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Kart ödemesinin sonuçları: onay, red, kuyruğun reddi ve zaman aşımına uğramış PENDING kaydın kurtarılması.
+// Gateway ve havuz testte kurulur; ödeme ve fatura satırları gerçek DB'ye yazılır.
+@SpringBootTest
+class PaymentProcessorTest {
+
+    private static final BigDecimal INVOICE_TOTAL = new BigDecimal("500.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("120.00");
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private RevenueRollupRepository revenueRollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private String tag;
+    private long dentistId;
+    private long invoiceId;
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        tag = "card-" + UUID.randomUUID();
+
+        long patientUser = jdbc.queryForObject("""
+                insert into user_account (email, password_hash, role, is_active, created_at)
+                values (?, 'x', 'PATIENT', true, now()) returning id
+                """, Long.class, tag + "-p@example.com");
+        long dentistUser = jdbc.queryForObject("""
+                insert into user_account (email, password_hash, role, is_active, created_at)
+                values (?, 'x', 'DENTIST', true, now()) returning id
+                """, Long.class, tag + "-d@example.com");
+        long clinicId = jdbc.queryForObject(
+                "insert into clinic (name) values (?) returning id", Long.class, tag);
+        long patientId = jdbc.queryForObject(
+                "insert into patient (user_account_id, first_name, last_name) values (?, 'Test', ?) returning id",
+                Long.class, patientUser, tag);
+        dentistId = jdbc.queryForObject(
+                "insert into dentist (user_account_id, clinic_id, first_name, last_name) values (?, ?, 'Test', ?) returning id",
+                Long.class, dentistUser, clinicId, tag);
+        long appointmentId = jdbc.queryForObject("""
+                insert into appointment (patient_id, dentist_id, clinic_id, appointment_datetime, status, created_at)
+                values (?, ?, ?, now() - interval '1 day', 'COMPLETED', now()) returning id
+                """, Long.class, patientId, dentistId, clinicId);
+        invoiceId = jdbc.queryForObject("""
+                insert into invoice (appointment_id, total_amount, discount_amount, final_amount, status, created_at)
+                values (?, ?, 0, ?, 'UNPAID', now()) returning id
+                """, Long.class, appointmentId, INVOICE_TOTAL, INVOICE_TOTAL);
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        jdbc.update("delete from payment where invoice_id = ?", invoiceId);
+        jdbc.update("delete from invoice where id = ?", invoiceId);
+        jdbc.update("delete from revenue_daily where dentist_id = ?", dentistId);
+        jdbc.update("delete from appointment where clinic_id in (select id from clinic where name = ?)", tag);
+        jdbc.update("delete from patient where last_name = ?", tag);
+        jdbc.update("delete from dentist where last_name = ?", tag);
+        jdbc.update("delete from clinic where name = ?", tag);
+        jdbc.update("delete from user_account where email like ?", tag + "%");
+    }
+
+    @Test
+    void approvedChargeCapturesReservation() {
+        PaymentProcessor processor = processor(request -> PaymentGateway.ChargeResult.approved("TX-" + tag));
+        long paymentId = reservePending("now()");
+
+        processor.dispatch(invoiceId, charge(paymentId));
+        drain();
+
+        assertPayment(paymentId, "SUCCESS", "TX-" + tag);
+        assertInvoice(AMOUNT, BigDecimal.ZERO);
+        BigDecimal revenue = jdbc.queryForObject(
+                "select coalesce(sum(amount), 0) from revenue_daily where dentist_id = ?", BigDecimal.class, dentistId);
+        assertEquals(0, AMOUNT.compareTo(revenue));
+    }
+
+    @Test
+    void declinedChargeReleasesReservation() {
+        PaymentProcessor processor = processor(request -> PaymentGateway.ChargeResult.declined("card"));
+        long paymentId = reservePending("now()");
+
+        processor.dispatch(invoiceId, charge(paymentId));
+        drain();
+
+        assertPayment(paymentId, "FAILED", "DECLINED-card");
+        assertInvoice(BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    @Test
+    void rejectedTaskFailsPayment() {
+        PaymentProcessor processor = processor(request -> PaymentGateway.ChargeResult.approved("TX-" + tag));
+        long paymentId = reservePending("now()");
+
+        // Kapatılmış havuz her görevi reddeder
+        executor.shutdown();
+        processor.dispatch(invoiceId, charge(paymentId));
+
+        assertPayment(paymentId, "FAILED", "DECLINED-busy");
+        assertInvoice(BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    @Test
+    void sweepFailsStalePendingAndKeepsFreshOnes() {
+        PaymentProcessor processor = processor(request -> PaymentGateway.ChargeResult.approved("TX-" + tag));
+        // Görevi hiç çalışmamış (restart) eski ödeme ve yeni başlatılmış bir ödeme
+        long stale = reservePending("now() - interval '1 hour'");
+        long fresh = reservePending("now()");
+
+        assertTrue(processor.failStalePending() >= 1);
+
+        assertPayment(stale, "FAILED", "DECLINED-timeout");
+        assertPayment(fresh, "PENDING", null);
+        assertInvoice(BigDecimal.ZERO, AMOUNT);
+
+        // Geç gelen gateway sonucu kapatılmış ödemeyi değiştirmez
+        processor.dispatch(invoiceId, charge(stale));
+        drain();
+        assertPayment(stale, "FAILED", "DECLINED-timeout");
+        assertInvoice(BigDecimal.ZERO, AMOUNT);
+    }
+
+    private PaymentProcessor processor(PaymentGateway gateway) {
+        return new PaymentProcessor(gateway, paymentRepository, invoiceRepository, revenueRollupRepository,
+                executor, transactionManager, new SimpleMeterRegistry(), 15);
+    }
+
+    // PaymentPostingService.submitCard'ın commit ettiği durum: tutar ayrılmış, ödeme PENDING
+    private long reservePending(String paymentDatetime) {
+        jdbc.update("update invoice set pending_amount = pending_amount + ? where id = ?", AMOUNT, invoiceId);
+        return jdbc.queryForObject("""
+                insert into payment (invoice_id, amount, payment_datetime, payment_method, payment_status)
+                values (?, ?, %s, 'CARD', 'PENDING') returning id
+                """.formatted(paymentDatetime), Long.class, invoiceId, AMOUNT);
+    }
+
+    private PaymentGateway.ChargeRequest charge(long paymentId) {
+        return new PaymentGateway.ChargeRequest(paymentId, AMOUNT, "VISA", "4111111111111111", "12/30", "123");
+    }
+
+    // Kuyruktaki görevlerin bitmesini bekler
+    private void drain() {
+        executor.shutdown();
+    }
+
+    private void assertPayment(long paymentId, String status, String transactionNo) {
+        Map<String, Object> row = jdbc.queryForMap(
+                "select payment_status, transaction_no from payment where id = ?", paymentId);
+        assertEquals(status, row.get("payment_status"));
+        assertEquals(transactionNo, row.get("transaction_no"));
+    }
+
+    private void assertInvoice(BigDecimal paid, BigDecimal pending) {
+        Map<String, Object> row = jdbc.queryForMap(
+                "select paid_amount, pending_amount from invoice where id = ?", invoiceId);
+        assertEquals(0, paid.compareTo((BigDecimal) row.get("paid_amount")));
+        assertEquals(0, pending.compareTo((BigDecimal) row.get("pending_amount")));
+    }
+}
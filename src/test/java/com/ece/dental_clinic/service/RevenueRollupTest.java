@@ -0,0 +1,171 @@
+package com.ece.dental_clinic.service;
+
+import com.ece.dental_clinic.dto.RevenueRow;
+import com.ece.dental_clinic.enums.PaymentMethod;
+import com.ece.dental_clinic.repository.RevenueRollupRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// revenue_daily özeti: başarılı ödemeler aynı transaction'da özete eklenir, raporlar özetten okunur
+// ve rebuild ham ödemelerden aynı sonucu üretir.
+@SpringBootTest
+class RevenueRollupTest {
+
+    private static final BigDecimal INVOICE_TOTAL = new BigDecimal("1000.00");
+
+    @Autowired
+    private PaymentPostingService paymentPostingService;
+
+    @Autowired
+    private RevenueReportService revenueReportService;
+
+    @Autowired
+    private RevenueRollupRepository revenueRollupRepository;
+
+    @Autowired
+    private DentistDirectory dentistDirectory;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private String tag;
+    private long clinicId;
+    private long firstDentistId;
+    private long secondDentistId;
+    private long firstInvoiceId;
+    private long secondInvoiceId;
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        tag = "rev-" + UUID.randomUUID();
+
+        clinicId = jdbc.queryForObject(
+                "insert into clinic (name) values (?) returning id", Long.class, tag);
+        long patientUser = jdbc.queryForObject("""
+                insert into user_account (email, password_hash, role, is_active, created_at)
+                values (?, 'x', 'PATIENT', true, now()) returning id
+                """, Long.class, tag + "-p@example.com");
+        long patientId = jdbc.queryForObject(
+                "insert into patient (user_account_id, first_name, last_name) values (?, 'Test', ?) returning id",
+                Long.class, patientUser, tag);
+
+        firstDentistId = dentist("a");
+        secondDentistId = dentist("b");
+        firstInvoiceId = invoice(patientId, firstDentistId);
+        secondInvoiceId = invoice(patientId, secondDentistId);
+
+        // Fixture JDBC ile yazıldı; hekim adları için dizin yeniden yüklensin
+        dentistDirectory.invalidate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("""
+                delete from payment
+                where invoice_id in (select id from invoice where appointment_id in
+                    (select id from appointment where clinic_id = ?))
+                """, clinicId);
+        jdbc.update("delete from invoice where appointment_id in (select id from appointment where clinic_id = ?)", clinicId);
+        jdbc.update("delete from revenue_daily where clinic_id = ?", clinicId);
+        jdbc.update("delete from appointment where clinic_id = ?", clinicId);
+        jdbc.update("delete from patient where last_name = ?", tag);
+        jdbc.update("delete from dentist where last_name like ?", tag + "%");
+        jdbc.update("delete from clinic where id = ?", clinicId);
+        jdbc.update("delete from user_account where email like ?", tag + "%");
+        dentistDirectory.invalidate();
+    }
+
+    @Test
+    void paymentsMaintainRollupAndReports() {
+        assertTrue(paymentPostingService.post(firstInvoiceId, new BigDecimal("100.00"), PaymentMethod.CASH).isPresent());
+        assertTrue(paymentPostingService.post(firstInvoiceId, new BigDecimal("50.50"), PaymentMethod.CASH).isPresent());
+        assertTrue(paymentPostingService.post(secondInvoiceId, new BigDecimal("300.00"), PaymentMethod.CASH).isPresent());
+        // Bakiyeyi aşan ödeme kabul edilmez ve özete girmez
+        assertTrue(paymentPostingService.post(secondInvoiceId, new BigDecimal("800.00"), PaymentMethod.CASH).isEmpty());
+        // Onaylanmış kart ödemesi (PaymentProcessor.complete yolu) ve özete girmemesi gereken başarısız ödeme
+        revenueRollupRepository.addPayment(payment(firstInvoiceId, "25.00", "SUCCESS"));
+        revenueRollupRepository.addPayment(payment(firstInvoiceId, "999.00", "FAILED"));
+
+        List<RevenueRow> daily = revenueReportService.dentistRevenue(firstDentistId, today, today, false);
+        assertEquals(1, daily.size());
+        assertRow(daily.get(0), today.toString(), "150.50", "25.00", 3);
+
+        List<RevenueRow> monthly = revenueReportService.dentistRevenue(firstDentistId, today, today, true);
+        assertEquals(1, monthly.size());
+        assertRow(monthly.get(0), today.withDayOfMonth(1).toString(), "150.50", "25.00", 3);
+
+        List<RevenueRow> clinic = revenueReportService.clinicRevenueByDentist(clinicId, today, today);
+        assertEquals(2, clinic.size());
+        // Toplama göre azalan sıra
+        assertRow(clinic.get(0), "Test " + tag + "-b", "300.00", "0", 1);
+        assertRow(clinic.get(1), "Test " + tag + "-a", "150.50", "25.00", 3);
+    }
+
+    @Test
+    void rebuildMatchesIncrementalRollup() {
+        paymentPostingService.post(firstInvoiceId, new BigDecimal("100.00"), PaymentMethod.CASH);
+        paymentPostingService.post(secondInvoiceId, new BigDecimal("40.00"), PaymentMethod.CASH);
+        revenueRollupRepository.addPayment(payment(secondInvoiceId, "60.00", "SUCCESS"));
+        List<RevenueRow> before = revenueReportService.clinicRevenueByDentist(clinicId, today, today);
+
+        // Özet bozulsa bile rebuild ham ödemelerden aynı sonucu kurar
+        jdbc.update("update revenue_daily set amount = 0, payment_count = 0 where clinic_id = ?", clinicId);
+        assertTrue(revenueReportService.rebuild(today, today) >= 2);
+
+        List<RevenueRow> after = revenueReportService.clinicRevenueByDentist(clinicId, today, today);
+        assertEquals(before.size(), after.size());
+        for (int i = 0; i < before.size(); i++) {
+            RevenueRow b = before.get(i);
+            assertRow(after.get(i), b.getLabel(), b.getCash().toPlainString(), b.getCard().toPlainString(), b.getPayments());
+        }
+    }
+
+    private long dentist(String suffix) {
+        long user = jdbc.queryForObject("""
+                insert into user_account (email, password_hash, role, is_active, created_at)
+                values (?, 'x', 'DENTIST', true, now()) returning id
+                """, Long.class, tag + "-d" + suffix + "@example.com");
+        return jdbc.queryForObject(
+                "insert into dentist (user_account_id, clinic_id, first_name, last_name) values (?, ?, 'Test', ?) returning id",
+                Long.class, user, clinicId, tag + "-" + suffix);
+    }
+
+    private long invoice(long patientId, long dentistId) {
+        long appointmentId = jdbc.queryForObject("""
+                insert into appointment (patient_id, dentist_id, clinic_id, appointment_datetime, status, created_at)
+                values (?, ?, ?, now() - interval '1 day', 'COMPLETED', now()) returning id
+                """, Long.class, patientId, dentistId, clinicId);
+        return jdbc.queryForObject("""
+                insert into invoice (appointment_id, total_amount, discount_amount, final_amount, status, created_at)
+                values (?, ?, 0, ?, 'UNPAID', now()) returning id
+                """, Long.class, appointmentId, INVOICE_TOTAL, INVOICE_TOTAL);
+    }
+
+    private long payment(long invoiceId, String amount, String status) {
+        return jdbc.queryForObject("""
+                insert into payment (invoice_id, amount, payment_datetime, payment_method, payment_status, transaction_no)
+                values (?, ?, now(), 'CARD', ?, ?) returning id
+                """, Long.class, invoiceId, new BigDecimal(amount), status, tag);
+    }
+
+    private static void assertRow(RevenueRow row, String label, String cash, String card, long payments) {
+        assertEquals(label, row.getLabel());
+        assertEquals(0, new BigDecimal(cash).compareTo(row.getCash()));
+        assertEquals(0, new BigDecimal(card).compareTo(row.getCard()));
+        assertEquals(0, new BigDecimal(cash).add(new BigDecimal(card)).compareTo(row.getTotal()));
+        assertEquals(payments, row.getPayments());
+    }
+}